@@ -2,6 +2,7 @@ package io.zephyr.api;
 
 import io.zephyr.kernel.Module;
 import io.zephyr.kernel.core.Kernel;
+import java.util.List;
 
 public interface ServiceRegistry extends AutoCloseable {
 
@@ -16,4 +17,12 @@ public interface ServiceRegistry extends AutoCloseable {
   <T> void unregister(ServiceRegistration<T> definition);
 
   ServiceRegistrationSet getRegistrations(Module module);
+
+  /**
+   * @param type the type to look up
+   * @param <T> the type of the service
+   * @return every registration that provides type, across all modules. Implementations should not
+   *     need to scan unrelated registrations to answer this
+   */
+  <T> List<ServiceRegistration<T>> getRegistrations(Class<T> type);
 }
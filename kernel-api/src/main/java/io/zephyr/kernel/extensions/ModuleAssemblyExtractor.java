@@ -20,6 +20,15 @@ public interface ModuleAssemblyExtractor extends Comparable<ModuleAssemblyExtrac
   void extract(Assembly assembly, FileSystem moduleFilesystem, ExtractionListener listener)
       throws Exception;
 
+  /**
+   * releases anything {@link #appliesTo} retained for the assembly (e.g. the open archive handed on
+   * to {@link #extract}). Called once the assembly has been extracted or passed over, whether or
+   * not {@link #extract} ran or succeeded
+   *
+   * @param assembly the assembly passed to {@link #appliesTo}
+   */
+  default void release(Assembly assembly) {}
+
   interface ExtractionListener {
     void beforeEntryExtracted(String name, Object target);
 
@@ -54,6 +54,26 @@ public class Files {
     }
   }
 
+  /**
+   * makes the content of from available at to without copying it where the filesystem allows:
+   * to becomes a hard link to from, and the content is only copied if they're on different devices
+   * (or the filesystem doesn't support links). Anything already at to is replaced rather than
+   * written through, so content shared with from is never modified
+   *
+   * @param from the file to link to
+   * @param to the location to make the content available at
+   * @throws IOException if neither a link nor a copy could be created
+   */
+  public static void linkOrTransfer(File from, File to) throws IOException {
+    val target = to.toPath();
+    java.nio.file.Files.deleteIfExists(target);
+    try {
+      java.nio.file.Files.createLink(target, from.toPath());
+    } catch (IOException | UnsupportedOperationException ex) {
+      transferTo(from, to);
+    }
+  }
+
   @SuppressWarnings("PMD.DataflowAnomalyAnalysis")
   public static Path toPath(@NonNull String... segments) {
     Path path = Path.of(segments[0]);
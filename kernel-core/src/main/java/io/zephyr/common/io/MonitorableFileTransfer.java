@@ -10,6 +10,7 @@ import java.nio.channels.Channels;
 import java.nio.channels.ReadableByteChannel;
 import java.nio.channels.WritableByteChannel;
 import java.nio.file.Files;
+import java.security.MessageDigest;
 import java.util.concurrent.*;
 import lombok.val;
 
@@ -21,6 +22,9 @@ public class MonitorableFileTransfer extends ObservableChannelTransferListener
   private final URLConnection connection;
   private final ReadableByteChannel channel;
 
+  /** updated with every byte transferred, if set */
+  private MessageDigest digest;
+
   public MonitorableFileTransfer(
       URLConnection connection, File destination, long expectedSize, ReadableByteChannel channel) {
     this.channel = channel;
@@ -36,7 +40,7 @@ public class MonitorableFileTransfer extends ObservableChannelTransferListener
         source;
         val outputstream = Files.newOutputStream(destination.toPath());
         val outputChannel = Channels.newChannel(outputstream)) {
-      copy(source, outputChannel);
+      copy(source, outputChannel, digest);
     } catch (IOException ex) {
       onError(source, ex);
       throw ex;
@@ -46,9 +50,51 @@ public class MonitorableFileTransfer extends ObservableChannelTransferListener
     return destination;
   }
 
+  /**
+   * @param digest the digest to update with the transferred content. Must be set before call()
+   * @return this
+   */
+  public MonitorableFileTransfer digest(MessageDigest digest) {
+    this.digest = digest;
+    return this;
+  }
+
+  /** @return the modification time the source reports, or 0 if it doesn't */
+  public long getLastModified() {
+    return connection.getLastModified();
+  }
+
+  /** @return the size the source reports, or -1 if it doesn't */
+  public long getExpectedSize() {
+    return expectedSize;
+  }
+
+  /** closes the source without transferring anything */
+  public void discard() throws IOException {
+    try (val source = new MonitorableByteChannel(connection, channel, this, expectedSize)) {
+      onCancel(source);
+    }
+  }
+
   public static void copy(ReadableByteChannel in, WritableByteChannel out) throws IOException {
+    copy(in, out, null);
+  }
+
+  public static void copy(ReadableByteChannel in, WritableByteChannel out, MessageDigest digest)
+      throws IOException {
     ByteBuffer buffer = ByteBuffer.allocateDirect(32 * 1024);
-    while (in.read(buffer) != -1 || buffer.position() > 0) {
+    for (; ; ) {
+      int start = buffer.position();
+      int read = in.read(buffer);
+      if (read > 0 && digest != null) {
+        val added = buffer.duplicate();
+        added.flip();
+        added.position(start);
+        digest.update(added);
+      }
+      if (read == -1 && buffer.position() == 0) {
+        return;
+      }
       buffer.flip();
 
       out.write(buffer);
@@ -2,14 +2,23 @@ package io.zephyr.kernel.classloading;
 
 import io.sunshower.checks.SuppressFBWarnings;
 import io.zephyr.kernel.KernelModuleEntry;
-import java.io.ByteArrayOutputStream;
+import io.zephyr.kernel.log.Logging;
+import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.net.MalformedURLException;
+import java.net.URISyntaxException;
 import java.net.URL;
 import java.net.URLClassLoader;
+import java.util.ArrayList;
 import java.util.Enumeration;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.jar.JarFile;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 import lombok.val;
 
 @SuppressFBWarnings
@@ -20,39 +29,72 @@ import lombok.val;
 })
 public final class KernelClassloader extends URLClassLoader {
 
-  static final int BUFFER_SIZE = 1024;
+  static final String DROPLET_SUFFIX = ".droplet";
+  static final String DROPLET_CLASSES = "WEB-INF/classes/";
+  static final Logger log = Logging.get(KernelClassloader.class, "Classloading");
 
   final Object lock = new Object();
   private final List<KernelModuleEntry> kernelModules;
 
+  /**
+   * entry name (relative to WEB-INF/classes) -> the first droplet that contains it, in URL order.
+   * Built when a droplet is added so that lookups never have to probe each droplet
+   */
+  private final Map<String, Droplet> droplets;
+
+  /**
+   * droplets that could not be indexed (e.g. because they aren't local files), in URL order. These
+   * are probed through jar: URLs
+   */
+  private final List<Droplet> unindexed;
+
+  private final List<JarFile> openDroplets;
+
+  /** guarded by lock */
+  private int position;
+
   public KernelClassloader(URL[] urls, ClassLoader parent, List<KernelModuleEntry> entries) {
     super(urls, parent);
     this.kernelModules = entries;
+    this.droplets = new ConcurrentHashMap<>();
+    this.unindexed = new CopyOnWriteArrayList<>();
+    this.openDroplets = new ArrayList<>();
+    for (val url : urls) {
+      index(url);
+    }
+  }
+
+  @Override
+  protected void addURL(URL url) {
+    super.addURL(url);
+    index(url);
   }
 
   @Override
   public URL findResource(String name) {
     val resource = super.findResource(name);
-    if (resource == null) {
-      val checkUrl = "WEB-INF/classes/" + name;
-      for (URL url : getURLs()) {
-        if (url.toString().endsWith(".droplet")) {
-          try {
-            val test = new URL("jar:" + url + "!/" + checkUrl);
-            try (val t = test.openStream()) {
-
-            } catch (IOException ex) {
-              continue;
-            }
-            return test;
-
-          } catch (MalformedURLException ex) {
-            return null;
-          }
+    if (resource != null) {
+      return resource;
+    }
+    val droplet = droplets.get(name);
+    for (val candidate : unindexedBefore(droplet)) {
+      try {
+        val url = locate(candidate, name);
+        try (val input = url.openStream()) {
+          return url;
         }
+      } catch (IOException ex) {
+        // not in this droplet
       }
     }
-    return null;
+    if (droplet == null) {
+      return null;
+    }
+    try {
+      return locate(droplet, name);
+    } catch (MalformedURLException ex) {
+      return null;
+    }
   }
 
   @Override
@@ -60,32 +102,95 @@ public final class KernelClassloader extends URLClassLoader {
     return super.findResources(name);
   }
 
-  @SuppressFBWarnings
-  @SuppressWarnings("PMD.SystemPrintln")
+  @Override
+  public void close() throws IOException {
+    try {
+      super.close();
+    } finally {
+      synchronized (lock) {
+        for (val jar : openDroplets) {
+          try {
+            jar.close();
+          } catch (IOException ex) {
+            // nothing else holds it
+          }
+        }
+        openDroplets.clear();
+        droplets.clear();
+        unindexed.clear();
+      }
+    }
+  }
+
   private Class<?> searchInDroplets(String name) throws IOException, ClassNotFoundException {
-    val path = "WEB-INF/classes/" + name.replace('.', '/') + ".class";
-
-    for (val url : getURLs()) {
-      if (url.toString().endsWith(".droplet")) {
-        val classUrl = new URL("jar:" + url + "!/" + path);
-        try (val input = classUrl.openStream();
-            val output = new ByteArrayOutputStream()) {
-
-          byte[] data = new byte[BUFFER_SIZE];
-          int read;
-          for (; ; ) {
-            read = input.read(data, 0, data.length);
-            if (read == -1) break;
-            output.write(data, 0, read);
+    val path = name.replace('.', '/') + ".class";
+    val droplet = droplets.get(path);
+    for (val candidate : unindexedBefore(droplet)) {
+      try (val input = locate(candidate, path).openStream()) {
+        byte[] classdata = input.readAllBytes();
+        return defineClass(name, classdata, 0, classdata.length);
+      } catch (FileNotFoundException ex) {
+        // not in this droplet
+      }
+    }
+    if (droplet == null) {
+      throw new ClassNotFoundException(name);
+    }
+    val entry = droplet.jar.getJarEntry(DROPLET_CLASSES + path);
+    if (entry == null) {
+      throw new ClassNotFoundException(name);
+    }
+    try (val input = droplet.jar.getInputStream(entry)) {
+      byte[] classdata = input.readAllBytes();
+      return defineClass(name, classdata, 0, classdata.length);
+    }
+  }
+
+  private void index(URL url) {
+    if (!url.toString().endsWith(DROPLET_SUFFIX)) {
+      return;
+    }
+    synchronized (lock) {
+      val order = position++;
+      try {
+        val jar = new JarFile(new File(url.toURI()));
+        openDroplets.add(jar);
+        val droplet = new Droplet(url, jar, order);
+        val entries = jar.entries();
+        while (entries.hasMoreElements()) {
+          val entry = entries.nextElement();
+          val entryName = entry.getName();
+          if (!entry.isDirectory() && entryName.startsWith(DROPLET_CLASSES)) {
+            droplets.putIfAbsent(entryName.substring(DROPLET_CLASSES.length()), droplet);
           }
-          byte[] classdata = output.toByteArray();
-          return defineClass(name, classdata, 0, classdata.length);
-        } catch (FileNotFoundException ex) {
-          continue;
         }
+      } catch (IOException | URISyntaxException | IllegalArgumentException ex) {
+        log.log(Level.FINE, "classloader.droplet.unindexed", new Object[] {url, ex});
+        unindexed.add(new Droplet(url, null, order));
       }
     }
-    throw new ClassNotFoundException(name);
+  }
+
+  /**
+   * @param droplet the indexed droplet containing an entry, or null if none does
+   * @return the unindexed droplets that precede it in URL order, and so must be probed first
+   */
+  private List<Droplet> unindexedBefore(Droplet droplet) {
+    if (unindexed.isEmpty()) {
+      return List.of();
+    }
+    val result = new ArrayList<Droplet>(unindexed.size());
+    for (val candidate : unindexed) {
+      if (droplet != null && candidate.position > droplet.position) {
+        break;
+      }
+      result.add(candidate);
+    }
+    return result;
+  }
+
+  private static URL locate(Droplet droplet, String name) throws MalformedURLException {
+    return new URL("jar:" + droplet.url + "!/" + DROPLET_CLASSES + name);
   }
 
   @Override
@@ -105,4 +210,20 @@ public final class KernelClassloader extends URLClassLoader {
   public List<KernelModuleEntry> getKernelModules() {
     return kernelModules;
   }
+
+  static final class Droplet {
+    final URL url;
+
+    /** null if the droplet could not be indexed */
+    final JarFile jar;
+
+    /** the droplet's place among this loader's droplets, in URL order */
+    final int position;
+
+    Droplet(URL url, JarFile jar, int position) {
+      this.url = url;
+      this.jar = jar;
+      this.position = position;
+    }
+  }
 }
@@ -8,47 +8,108 @@ import io.sunshower.lang.events.EventSource;
 import io.sunshower.lang.events.EventType;
 import io.zephyr.api.Startable;
 import io.zephyr.api.Stoppable;
+import io.zephyr.kernel.log.Logging;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.LinkedTransferQueue;
-import java.util.concurrent.TransferQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 import lombok.AllArgsConstructor;
 import lombok.val;
 
-@SuppressWarnings({"PMD.DoNotUseThreads", "PMD.AvoidUsingVolatile"})
+/**
+ * dispatches events asynchronously. Listeners are partitioned into stripes by identity; each stripe
+ * has its own bounded queue and its own consumer (one executor thread per stripe), so a slow
+ * listener only delays the listeners that share its stripe.
+ *
+ * <p>Consumers drain their queues in batches. When a stripe's queue is full, dispatchEvent() blocks
+ * until the stripe catches up or this source is stopped. Events dispatched after stop() are dropped
+ * until the source is started again
+ */
+@SuppressWarnings({
+  "PMD.DoNotUseThreads",
+  "PMD.AvoidUsingVolatile",
+  "PMD.AvoidCatchingThrowable"
+})
 public class AsynchronousEventSource implements EventSource, Stoppable, Startable {
 
-  private final QueuedEventSource source;
+  static final Logger log = Logging.get(AsynchronousEventSource.class, "Concurrency");
+
+  static final int DEFAULT_STRIPES = 1;
+  static final int DEFAULT_CAPACITY = 1024;
+  static final int BATCH_SIZE = 64;
+
+  /** how often a producer blocked on a full queue checks whether its stripe has been stopped */
+  static final long OFFER_INTERVAL_MILLIS = 50;
+
+  /** wakes a consumer blocked on an empty queue so that it can observe a stop */
+  static final AsynchronousEvent<?> STOP = new AsynchronousEvent<>(null, null);
+
+  private final Stripe[] stripes;
   private final ExecutorService executorService;
-  private final TransferQueue<AsynchronousEvent<?>> queue;
+  private final CountDownLatch initialized;
 
-  private final Object queueLock = new Object();
+  private volatile boolean running;
 
   public AsynchronousEventSource(ExecutorService executorService) {
-    queue = new LinkedTransferQueue<>();
-    source = new QueuedEventSource();
+    this(executorService, DEFAULT_STRIPES, DEFAULT_CAPACITY);
+  }
+
+  /**
+   * @param executorService the executor to run consumers on. Each stripe occupies one of its
+   *     threads for as long as this source is running
+   * @param stripes the number of stripes to partition listeners into
+   * @param capacity the number of undelivered events each stripe may hold before dispatchEvent()
+   *     blocks
+   */
+  public AsynchronousEventSource(ExecutorService executorService, int stripes, int capacity) {
+    if (stripes < 1 || capacity < 1) {
+      throw new IllegalArgumentException("Stripes and capacity must both be positive");
+    }
     this.executorService = executorService;
+    this.stripes = new Stripe[stripes];
+    for (int i = 0; i < stripes; i++) {
+      this.stripes[i] = new Stripe(capacity);
+    }
+    this.initialized = new CountDownLatch(stripes);
   }
 
   public boolean isRunning() {
-    return source.running;
+    return running;
   }
 
   @Override
   public void stop() {
-    source.stop();
+    running = false;
+    for (val stripe : stripes) {
+      stripe.stop();
+    }
   }
 
   @Override
   public int getListenerCount() {
-    return source.getListenerCount();
+    int result = 0;
+    for (val stripe : stripes) {
+      result += stripe.getListenerCount();
+    }
+    return result;
   }
 
   @Override
   public boolean listensFor(EventType... types) {
-    synchronized (source) {
-      return source.listensFor(types);
+    for (val stripe : stripes) {
+      synchronized (stripe) {
+        if (stripe.listensFor(types)) {
+          return true;
+        }
+      }
     }
+    return false;
   }
 
   @Override
@@ -58,52 +119,68 @@ public class AsynchronousEventSource implements EventSource, Stoppable, Startabl
 
   @Override
   public <T> void addEventListener(EventListener<T> listener, int options, EventType... types) {
-    synchronized (source) {
-      source.addEventListener(listener, options, types);
+    val stripe = stripeFor(listener);
+    synchronized (stripe) {
+      stripe.addEventListener(listener, options, types);
     }
   }
 
   @Override
   public <T> void removeEventListener(EventListener<T> listener) {
-    synchronized (source) {
-      source.removeEventListener(listener);
+    val stripe = stripeFor(listener);
+    synchronized (stripe) {
+      stripe.removeEventListener(listener);
     }
   }
 
   @Override
   public <T> void dispatchEvent(EventType type, Event<T> event) {
-    synchronized (queueLock) {
-      queue.add(new AsynchronousEvent<>(event, type));
-      queueLock.notifyAll();
+    val asynchronousEvent = new AsynchronousEvent<>(event, type);
+    for (val stripe : stripes) {
+      boolean listening;
+      synchronized (stripe) {
+        listening = stripe.listensFor(type);
+      }
+      if (listening) {
+        stripe.enqueue(asynchronousEvent);
+      }
     }
   }
 
   @Override
   public List<EventListener<?>> getListeners() {
-    synchronized (source) {
-      return source.getListeners();
+    val result = new ArrayList<EventListener<?>>();
+    for (val stripe : stripes) {
+      synchronized (stripe) {
+        result.addAll(stripe.getListeners());
+      }
     }
+    return result;
   }
 
   @Override
   public void start() {
     synchronized (this) {
-      executorService.submit(source);
+      running = true;
+      for (val stripe : stripes) {
+        executorService.submit(stripe.restart());
+      }
     }
   }
 
   /** waits for initialization */
   public void initialize() {
-    synchronized (this) {
-      while (!source.running) {
-        try {
-          wait();
-        } catch (InterruptedException ex) {
-        }
-      }
+    try {
+      initialized.await();
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
     }
   }
 
+  private Stripe stripeFor(EventListener<?> listener) {
+    return stripes[Math.floorMod(System.identityHashCode(listener), stripes.length)];
+  }
+
   @AllArgsConstructor
   static class AsynchronousEvent<T> {
 
@@ -111,45 +188,108 @@ public class AsynchronousEventSource implements EventSource, Stoppable, Startabl
     final EventType eventType;
   }
 
-  final class QueuedEventSource extends AbstractEventSource implements Runnable, Stoppable {
+  final class Stripe extends AbstractEventSource implements Stoppable {
 
-    volatile boolean running;
+    final BlockingQueue<AsynchronousEvent<?>> queue;
 
-    @Override
-    public void run() {
-      synchronized (queueLock) {
-        running = true;
-        synchronized (AsynchronousEventSource.this) {
-          AsynchronousEventSource.this.notifyAll();
+    /**
+     * held by the stripe's consumer. A consumer from before a restart may still be finishing, so
+     * the next one waits for it in order to keep the stripe's events in order
+     */
+    final ReentrantLock consuming;
+
+    volatile Thread consumer;
+    volatile boolean stopped;
+
+    /** incremented by every start. A consumer exits once the stripe is started again */
+    volatile int generation;
+
+    Stripe(int capacity) {
+      queue = new ArrayBlockingQueue<>(capacity);
+      consuming = new ReentrantLock();
+    }
+
+    /**
+     * called under the source's lock by every start
+     *
+     * @return the stripe's consumer for this start
+     */
+    @SuppressFBWarnings
+    Runnable restart() {
+      val current = ++generation;
+      stopped = false;
+      return () -> consume(current);
+    }
+
+    void enqueue(AsynchronousEvent<?> event) {
+      if (Thread.currentThread() == consumer) {
+        // a listener dispatching to its own stripe must never wait on itself
+        if (!queue.offer(event)) {
+          deliver(event);
         }
-        while (running) {
-          while (queue.isEmpty()) {
-            try {
-              queueLock.wait();
-            } catch (InterruptedException ex) {
-              return;
-            }
+        return;
+      }
+      try {
+        while (!stopped) {
+          if (queue.offer(event, OFFER_INTERVAL_MILLIS, TimeUnit.MILLISECONDS)) {
+            return;
           }
-          drain();
         }
+        log.log(Level.FINE, "Dropping event {0}--event source is stopped", event.eventType);
+      } catch (InterruptedException ex) {
+        Thread.currentThread().interrupt();
+        log.log(Level.WARNING, "Interrupted while dispatching event {0}", event.eventType);
       }
     }
 
+    private void consume(int current) {
+      consuming.lock();
+      consumer = Thread.currentThread();
+      initialized.countDown();
+      val batch = new ArrayList<AsynchronousEvent<?>>(BATCH_SIZE);
+      try {
+        while (running && generation == current) {
+          batch.add(queue.take());
+          queue.drainTo(batch, BATCH_SIZE - 1);
+          deliver(batch);
+        }
+      } catch (InterruptedException ex) {
+        Thread.currentThread().interrupt();
+      } finally {
+        if (generation == current) {
+          queue.drainTo(batch);
+        }
+        deliver(batch);
+        consumer = null;
+        consuming.unlock();
+      }
+    }
+
+    private void deliver(List<AsynchronousEvent<?>> batch) {
+      for (val next : batch) {
+        deliver(next);
+      }
+      batch.clear();
+    }
+
     @SuppressFBWarnings
-    private void drain() {
-      while (!queue.isEmpty()) {
-        val next = queue.remove();
-        QueuedEventSource.this.dispatchEvent(next.eventType, next.event);
+    private void deliver(AsynchronousEvent<?> next) {
+      if (next == STOP) {
+        return;
+      }
+      try {
+        dispatchEvent(next.eventType, next.event);
+      } catch (Throwable ex) {
+        log.log(Level.WARNING, "Listener failed to handle event {0}", next.eventType);
+        log.log(Level.FINE, "Reason:", ex);
       }
     }
 
     @Override
     public void stop() {
-      synchronized (queueLock) {
-        drain();
-        running = false;
-        queueLock.notifyAll();
-      }
+      stopped = true;
+      // if the queue is full its consumer isn't blocked and will observe the stop on its own
+      queue.offer(STOP);
     }
   }
 }
@@ -0,0 +1,90 @@
+package io.zephyr.kernel.concurrency;
+
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import lombok.val;
+
+/**
+ * blocking waits that are safe to perform on the kernel's work-stealing pools. Each wait is
+ * performed as a {@link ForkJoinPool.ManagedBlocker}, so a pool whose worker blocks may start a
+ * spare worker in its place instead of running short of threads. Off the pools these are ordinary
+ * blocking waits
+ */
+public final class Blocking {
+
+  private Blocking() {
+    throw new IllegalStateException("No instances");
+  }
+
+  /**
+   * @param stage the stage to wait for
+   * @param <T> the type of its result
+   * @return its result
+   * @throws ExecutionException if it completed exceptionally
+   * @throws InterruptedException if the wait was interrupted
+   */
+  public static <T> T get(CompletionStage<T> stage)
+      throws InterruptedException, ExecutionException {
+    val future = stage.toCompletableFuture();
+    if (!future.isDone()) {
+      val latch = new CountDownLatch(1);
+      future.whenComplete((result, ex) -> latch.countDown());
+      await(latch);
+    }
+    return future.get();
+  }
+
+  /**
+   * like {@link java.util.concurrent.CompletableFuture#join()}
+   *
+   * @param stage the stage to wait for
+   * @param <T> the type of its result
+   * @return its result
+   * @throws CompletionException if it completed exceptionally or the wait was interrupted
+   */
+  @SuppressWarnings("PMD.PreserveStackTrace")
+  public static <T> T join(CompletionStage<T> stage) {
+    try {
+      return get(stage);
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      throw new CompletionException(ex);
+    } catch (ExecutionException ex) {
+      val cause = ex.getCause();
+      if (cause instanceof CompletionException) {
+        throw (CompletionException) cause;
+      }
+      throw new CompletionException(cause);
+    }
+  }
+
+  /**
+   * @param latch the latch to wait for
+   * @throws InterruptedException if the wait was interrupted
+   */
+  public static void await(CountDownLatch latch) throws InterruptedException {
+    ForkJoinPool.managedBlock(new LatchBlocker(latch));
+  }
+
+  static final class LatchBlocker implements ForkJoinPool.ManagedBlocker {
+    final CountDownLatch latch;
+
+    LatchBlocker(CountDownLatch latch) {
+      this.latch = latch;
+    }
+
+    @Override
+    public boolean block() throws InterruptedException {
+      latch.await();
+      return true;
+    }
+
+    @Override
+    public boolean isReleasable() {
+      return latch.getCount() == 0;
+    }
+  }
+}
@@ -1,6 +1,7 @@
 package io.zephyr.kernel.concurrency;
 
 import java.util.concurrent.*;
+import lombok.val;
 
 @SuppressWarnings("PMD.DoNotUseThreads")
 public class ExecutorWorkerPool implements WorkerPool {
@@ -11,11 +12,26 @@ public class ExecutorWorkerPool implements WorkerPool {
   public ExecutorWorkerPool(
       ExecutorService executorService, final ExecutorService kernelExecutorService) {
     this.executorService = executorService;
-    // this can't really rely on a single thread as the task graph will frequently block it, but we
-    // don't need that many of them
-    // this should probably be configurable
     this.kernelExecutorService = kernelExecutorService;
-    //        new ThreadPoolExecutor(0, 5, 60L, TimeUnit.SECONDS, new SynchronousQueue<>());
+  }
+
+  /**
+   * create a worker pool whose executors are both work-stealing pools. Idle workers steal queued
+   * tasks from busy ones, and neither pool grows past its parallelism
+   *
+   * @param userspaceConcurrency the parallelism of the userspace executor (--max-concurrency)
+   * @param kernelConcurrency the parallelism of the kernel executor (--kernel-concurrency)
+   * @return the worker pool
+   */
+  public static ExecutorWorkerPool workStealing(int userspaceConcurrency, int kernelConcurrency) {
+    return new ExecutorWorkerPool(
+        newWorkStealingPool("gyre", userspaceConcurrency),
+        newWorkStealingPool("kernel", kernelConcurrency));
+  }
+
+  static ExecutorService newWorkStealingPool(String name, int parallelism) {
+    val factory = new NamedThreadFactory(name);
+    return new ForkJoinPool(Math.max(1, parallelism), factory, factory, true);
   }
 
   @Override
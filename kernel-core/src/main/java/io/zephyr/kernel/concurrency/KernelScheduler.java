@@ -11,8 +11,17 @@ public final class KernelScheduler<K> implements Scheduler<K> {
 
   @Inject
   public KernelScheduler(WorkerPool pool) {
+    this(pool, new TaskDurations());
+  }
+
+  /**
+   * @param pool the pool to run tasks on
+   * @param durations the task timings to prioritize by, and to record into. Schedulers sharing an
+   *     instance learn from each other's runs
+   */
+  public KernelScheduler(WorkerPool pool, TaskDurations durations) {
     this.workerPool = pool;
-    this.scheduler = new TopologyAwareParallelScheduler<>(workerPool);
+    this.scheduler = new TopologyAwareParallelScheduler<>(workerPool, durations);
   }
 
   @Override
@@ -13,30 +13,39 @@ import io.zephyr.kernel.PluginException;
 import io.zephyr.kernel.TaskQueue;
 import io.zephyr.kernel.VolatileStorage;
 import io.zephyr.kernel.core.AbstractModule;
+import io.zephyr.kernel.core.DefaultModuleContext;
 import io.zephyr.kernel.core.Kernel;
 import io.zephyr.kernel.events.KernelEvents;
 import io.zephyr.kernel.status.Status;
 import io.zephyr.kernel.status.StatusType;
 import java.util.Map;
 import java.util.ServiceConfigurationError;
-import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.Callable;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionStage;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import lombok.val;
 
-/** not really sure if this is a good idea or not */
+/**
+ * not really sure if this is a good idea or not
+ *
+ * <p>each module's tasks are executed serially on its own thread. The thread parks while its queue
+ * is empty, so it may be a virtual thread (see {@link #ModuleThread(Module, Kernel, boolean)})
+ * without pinning its carrier on a monitor
+ */
 @SuppressWarnings({
   "PMD.DoNotUseThreads",
   "PMD.AvoidFieldNameMatchingTypeName",
   "PMD.UnusedPrivateMethod",
-  "PMD.DataflowAnomalyAnalysis"
+  "PMD.DataflowAnomalyAnalysis",
+  "PMD.AvoidCatchingThrowable"
 })
 @SuppressFBWarnings
 public class ModuleThread implements Startable, Stoppable, TaskQueue, Runnable, VolatileStorage {
@@ -44,25 +53,50 @@ public class ModuleThread implements Startable, Stoppable, TaskQueue, Runnable,
   static final Logger log = Logger.getLogger("ModuleThread");
   static final String FAILURE_TEMPLATE = "Failed to start plugin ''{0}''.  Reason: ''{1}''";
 
+  /** the maximum number of tasks run per pass before re-checking whether the module is running */
+  static final int BATCH_SIZE = 256;
+
   final Module module;
 
   final Kernel kernel;
 
+  /** run the task loop on a virtual thread, where supported */
+  final boolean virtual;
+
   final AtomicBoolean running;
-  final BlockingQueue<Runnable> taskQueue;
+  final MpscQueue<Runnable> taskQueue;
   final AtomicReference<Thread> moduleThread;
   final InheritableThreadLocal<Map<Object, Object>> context;
-  final Object queueLock = new Object();
-  final Object moduleLock = new Object();
+
+  /**
+   * held by whichever thread is consuming the queue. The queue only supports a single consumer, and
+   * callers drain it themselves while the module thread isn't running (before it has started, or
+   * once it has been stopped while it's still finishing a batch)
+   */
+  final ReentrantLock drainLock = new ReentrantLock();
+
+  private volatile CountDownLatch started;
+  private volatile CountDownLatch stopped;
 
   public ModuleThread(final Module module, final Kernel kernel) {
+    this(module, kernel, false);
+  }
+
+  /**
+   * @param module the module to run tasks for
+   * @param kernel the kernel
+   * @param virtual if true, and the runtime supports it, run the module's task loop on a virtual
+   *     thread instead of a dedicated platform thread
+   */
+  public ModuleThread(final Module module, final Kernel kernel, final boolean virtual) {
     if (module.getType() == Module.Type.KernelModule) {
       throw new IllegalStateException("Error: cannot create a module thread for a kernel module");
     }
     this.kernel = kernel;
     this.module = module;
+    this.virtual = virtual;
     this.moduleThread = new AtomicReference<>();
-    this.taskQueue = new LinkedBlockingQueue<>();
+    this.taskQueue = new MpscQueue<>();
     this.running = new AtomicBoolean(false);
     this.context = new InheritableThreadLocal<>();
     context.set(new ConcurrentHashMap<>());
@@ -75,20 +109,17 @@ public class ModuleThread implements Startable, Stoppable, TaskQueue, Runnable,
       log.log(Level.INFO, "Module thread {0} is not running", Thread.currentThread().getName());
       return;
     }
-    synchronized (queueLock) {
-      running.set(false);
-      queueLock.notifyAll();
-      while (running.get()) {
-        try {
-          synchronized (moduleLock) {
-            moduleLock.wait();
-          }
-        } catch (InterruptedException ex) {
-          log.log(Level.INFO, "interrupted", ex);
-          break;
-        }
-      }
+    running.set(false);
+    val thread = moduleThread.get();
+    LockSupport.unpark(thread);
+    if (thread != Thread.currentThread()) {
+      await(stopped);
+    }
+    drainLock.lock();
+    try {
       doStop();
+    } finally {
+      drainLock.unlock();
     }
     log.log(
         Level.INFO, "Successfully stopped module thread: {0}", Thread.currentThread().getName());
@@ -100,15 +131,26 @@ public class ModuleThread implements Startable, Stoppable, TaskQueue, Runnable,
       log.info("Module thread {0} is already running");
       return;
     }
-    synchronized (moduleLock) {
-      val thread = new Thread(this, "module-" + module.getCoordinate().toCanonicalForm());
-      moduleThread.set(thread);
-      thread.start();
-      try {
-        moduleLock.wait();
-      } catch (InterruptedException ex) {
-        log.log(Level.INFO, "module thread interrupted", ex);
-      }
+    val startLatch = new CountDownLatch(1);
+    started = startLatch;
+    stopped = new CountDownLatch(1);
+    val thread =
+        VirtualThreads.newThread(
+            this, "module-" + module.getCoordinate().toCanonicalForm(), virtual);
+    moduleThread.set(thread);
+    thread.start();
+    await(startLatch);
+  }
+
+  private void await(CountDownLatch latch) {
+    if (latch == null) {
+      return;
+    }
+    try {
+      Blocking.await(latch);
+    } catch (InterruptedException ex) {
+      log.log(Level.INFO, "module thread interrupted", ex);
+      Thread.currentThread().interrupt();
     }
   }
 
@@ -119,64 +161,64 @@ public class ModuleThread implements Startable, Stoppable, TaskQueue, Runnable,
 
   @Override
   public <T> CompletionStage<T> schedule(Callable<T> task) {
-    synchronized (queueLock) {
-      val result = new TaskQueueCallable<>(task);
-      taskQueue.offer(result);
-      queueLock.notifyAll();
-      return result;
-    }
+    return enqueue(new TaskQueueCallable<>(task));
   }
 
   @Override
   public CompletionStage<Void> schedule(Runnable task) {
-    synchronized (queueLock) {
-      val result = new TaskQueueRunnable(task);
-      taskQueue.offer(task);
-      queueLock.notifyAll();
-
-      if (!(running.get() || hasAllowedSchedulingState())) {
-        log.log(
-            Level.WARNING,
-            "Attempting to schedule a task on a {0} module.  Draining immediately",
-            module.getLifecycle().getState());
-        drainQueue();
-      }
-      return result;
+    return enqueue(new TaskQueueRunnable(task));
+  }
+
+  /**
+   * every task is wrapped in a future that it completes, normally or exceptionally, when it runs.
+   * If nothing will consume the queue the task is drained on the caller's thread (under the drain
+   * lock, so never alongside the module thread), so the returned future always completes
+   */
+  private <T extends Runnable> T enqueue(T task) {
+    taskQueue.offer(task);
+    LockSupport.unpark(moduleThread.get());
+
+    if (!(running.get() || hasAllowedSchedulingState())) {
+      log.log(
+          Level.WARNING,
+          "Attempting to schedule a task on a {0} module.  Draining immediately",
+          module.getLifecycle().getState());
+      drainQueue();
     }
+    return task;
   }
 
   @Override
   public void run() {
     performStart();
     while (running.get()) {
-      try {
-        while (!taskQueue.isEmpty()) {
-          val runnable = taskQueue.take();
-          runnable.run();
-        }
-        synchronized (queueLock) {
-          queueLock.wait();
-        }
-      } catch (InterruptedException ex) {
-        log.log(Level.INFO, "module interrupted", ex);
+      int drained;
+      do {
+        drained = drainBatch();
+      } while (drained == BATCH_SIZE && running.get());
+      if (running.get() && taskQueue.isEmpty()) {
+        // a concurrent schedule() unparks us, so a wakeup between the check and here isn't lost
+        LockSupport.park(this);
       }
     }
     finalizeModule();
   }
 
   private void finalizeModule() {
-    synchronized (moduleLock) {
-      moduleLock.notifyAll();
+    val latch = stopped;
+    if (latch != null) {
+      latch.countDown();
     }
   }
 
   private void performStart() {
-    synchronized (moduleLock) {
-      running.set(true);
-      try {
-        doStart();
-      } finally { // don't hang if an exception is thrown
-        moduleLock.notifyAll();
+    running.set(true);
+    try {
+      doStart();
+    } finally { // don't hang if an exception is thrown
+      val latch = started;
+      if (latch != null) {
+        latch.countDown();
       }
     }
   }
@@ -267,6 +309,10 @@ public class ModuleThread implements Startable, Stoppable, TaskQueue, Runnable,
             }
           } finally {
             ((AbstractModule) module).setActivator(null);
+            val moduleContext = module.getContext();
+            if (moduleContext instanceof DefaultModuleContext) {
+              ((DefaultModuleContext) moduleContext).release();
+            }
             //          module.close();
             moduleThread.get().setContextClassLoader(null);
             /**
@@ -317,15 +363,35 @@ public class ModuleThread implements Startable, Stoppable, TaskQueue, Runnable,
     context.get().clear();
   }
 
+  private int drainBatch() {
+    drainLock.lock();
+    try {
+      return taskQueue.drain(Runnable::run, BATCH_SIZE);
+    } finally {
+      drainLock.unlock();
+    }
+  }
+
   private void drainQueue() {
-    synchronized (queueLock) {
-      while (!taskQueue.isEmpty()) {
-        val task = taskQueue.poll();
-        task.run();
-      }
+    drainLock.lock();
+    try {
+      int drained;
+      do {
+        drained = taskQueue.drain(Runnable::run, BATCH_SIZE);
+      } while (drained > 0);
+    } finally {
+      drainLock.unlock();
     }
   }
 
+  static void taskFailed(Object task, Throwable ex) {
+    log.log(
+        Level.WARNING,
+        "Task ''{0}'' failed.  Reason: ''{1}''",
+        new Object[] {task, ex.getMessage()});
+    log.log(Level.FINE, "Reason: ", ex);
+  }
+
   private boolean hasAllowedSchedulingState() {
     val state = module.getLifecycle().getState();
     switch (state) {
@@ -348,8 +414,13 @@ public class ModuleThread implements Startable, Stoppable, TaskQueue, Runnable,
 
     @Override
     public void run() {
-      delegate.run();
-      complete(null);
+      try {
+        delegate.run();
+        complete(null);
+      } catch (Throwable ex) {
+        taskFailed(delegate, ex);
+        completeExceptionally(ex);
+      }
     }
   }
 
@@ -373,8 +444,9 @@ public class ModuleThread implements Startable, Stoppable, TaskQueue, Runnable,
     public void run() {
       try {
         call();
-      } catch (Exception ex) {
-        throw new RuntimeException(ex);
+      } catch (Throwable ex) {
+        taskFailed(delegate, ex);
+        completeExceptionally(ex);
       }
     }
   }
@@ -0,0 +1,86 @@
+package io.zephyr.kernel.concurrency;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import lombok.val;
+
+/**
+ * an unbounded, lock-free multi-producer/single-consumer queue. Producers swap themselves onto the
+ * tail with a single atomic exchange and then link their predecessor; the consumer walks the links
+ * from a stub head without any synchronization of its own.
+ *
+ * <p>Any thread may offer; only one thread at a time may poll or drain
+ *
+ * @param <E> the type of the elements
+ */
+final class MpscQueue<E> {
+
+  private final AtomicInteger size;
+  private final AtomicReference<Node<E>> tail;
+
+  /** consumer-owned */
+  private Node<E> head;
+
+  MpscQueue() {
+    val stub = new Node<E>(null);
+    head = stub;
+    size = new AtomicInteger();
+    tail = new AtomicReference<>(stub);
+  }
+
+  void offer(E element) {
+    val node = new Node<>(element);
+    size.incrementAndGet();
+    tail.getAndSet(node).next = node;
+  }
+
+  /** @return the next element, or null if none is (yet) linked */
+  E poll() {
+    val next = head.next;
+    if (next == null) {
+      return null;
+    }
+    val result = next.value;
+    next.value = null;
+    head = next;
+    size.decrementAndGet();
+    return result;
+  }
+
+  /**
+   * @param consumer the consumer to hand each element to
+   * @param limit the maximum number of elements to drain
+   * @return the number of elements drained
+   */
+  int drain(Consumer<? super E> consumer, int limit) {
+    int count = 0;
+    E next;
+    while (count < limit && (next = poll()) != null) {
+      consumer.accept(next);
+      count++;
+    }
+    return count;
+  }
+
+  /**
+   * @return true if no element is linked. An element whose producer has not finished linking it is
+   *     not yet visible, but that producer will signal the consumer once it has
+   */
+  boolean isEmpty() {
+    return head.next == null;
+  }
+
+  int size() {
+    return Math.max(0, size.get());
+  }
+
+  static final class Node<E> {
+    E value;
+    volatile Node<E> next;
+
+    Node(E value) {
+      this.value = value;
+    }
+  }
+}
@@ -1,6 +1,8 @@
 package io.zephyr.kernel.concurrency;
 
 import java.lang.Thread.UncaughtExceptionHandler;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.logging.Level;
@@ -8,7 +10,8 @@ import lombok.extern.java.Log;
 
 @SuppressWarnings({"PMD.DoNotUseThreads", "PMD.AvoidThreadGroup"})
 @Log
-public class NamedThreadFactory implements ThreadFactory, UncaughtExceptionHandler {
+public class NamedThreadFactory
+    implements ThreadFactory, ForkJoinPool.ForkJoinWorkerThreadFactory, UncaughtExceptionHandler {
 
   private static final AtomicInteger poolNumber = new AtomicInteger(1);
   private final ThreadGroup group;
@@ -33,6 +36,11 @@ public class NamedThreadFactory implements ThreadFactory, UncaughtExceptionHandl
     return t;
   }
 
+  @Override
+  public ForkJoinWorkerThread newThread(ForkJoinPool pool) {
+    return new NamedForkJoinWorkerThread(pool, namePrefix + threadNumber.getAndIncrement());
+  }
+
   @Override
   public void uncaughtException(Thread thread, Throwable throwable) {
     log.log(
@@ -40,4 +48,11 @@ public class NamedThreadFactory implements ThreadFactory, UncaughtExceptionHandl
         "Exception in thread {0}: {1}",
         new Object[] {thread.getName(), throwable.getMessage()});
   }
+
+  static final class NamedForkJoinWorkerThread extends ForkJoinWorkerThread {
+    NamedForkJoinWorkerThread(ForkJoinPool pool, String name) {
+      super(pool);
+      setName(name);
+    }
+  }
 }
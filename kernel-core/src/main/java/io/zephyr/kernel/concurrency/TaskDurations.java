@@ -0,0 +1,93 @@
+package io.zephyr.kernel.concurrency;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import lombok.val;
+
+/**
+ * historical execution times of tasks, keyed by task name without any trailing version (e.g.
+ * plugin:start:group:name:version is recorded as plugin:start:group:name), so that timings survive
+ * from one lifecycle operation to the next and across upgrades of a module. At most MAX_ENTRIES
+ * names are remembered; the least recently used are forgotten first
+ */
+public final class TaskDurations {
+
+  /** the estimate for a task that has never been observed */
+  static final long DEFAULT_ESTIMATE = TimeUnit.MILLISECONDS.toNanos(1);
+
+  /** weight of each new sample is 1 / 2^SMOOTHING */
+  static final int SMOOTHING = 2;
+
+  static final int MAX_ENTRIES = 1024;
+
+  private final Map<String, Long> durations;
+
+  public TaskDurations() {
+    this(MAX_ENTRIES);
+  }
+
+  /** @param capacity the maximum number of task names to remember */
+  public TaskDurations(int capacity) {
+    if (capacity < 1) {
+      throw new IllegalArgumentException("Capacity must be positive");
+    }
+    durations =
+        Collections.synchronizedMap(
+            new LinkedHashMap<>(16, 0.75f, true) {
+              private static final long serialVersionUID = 1L;
+
+              @Override
+              protected boolean removeEldestEntry(Map.Entry<String, Long> eldest) {
+                return size() > capacity;
+              }
+            });
+  }
+
+  /**
+   * @param name the name of the task
+   * @param nanos how long the task took to run
+   */
+  public void record(String name, long nanos) {
+    durations.merge(
+        keyOf(name), nanos, (previous, sample) -> previous + ((sample - previous) >> SMOOTHING));
+  }
+
+  /**
+   * @param name the name of the task
+   * @return the smoothed duration (in nanoseconds) of the task, or a small default if it has never
+   *     run
+   */
+  public long estimate(String name) {
+    return durations.getOrDefault(keyOf(name), DEFAULT_ESTIMATE);
+  }
+
+  /** @return the number of task names currently remembered */
+  public int size() {
+    return durations.size();
+  }
+
+  /**
+   * @param name a task name
+   * @return the name without its last colon-separated segment if that segment is a version: it
+   *     starts with a digit and contains only letters, digits, '.', '-', '+' and '_' (so that a
+   *     port in a URL is kept)
+   */
+  static String keyOf(String name) {
+    val separator = name.lastIndexOf(':');
+    if (separator <= 0 || separator == name.length() - 1) {
+      return name;
+    }
+    if (!Character.isDigit(name.charAt(separator + 1))) {
+      return name;
+    }
+    for (int i = separator + 2; i < name.length(); i++) {
+      val c = name.charAt(i);
+      if (!Character.isLetterOrDigit(c) && c != '.' && c != '-' && c != '+' && c != '_') {
+        return name;
+      }
+    }
+    return name.substring(0, separator);
+  }
+}
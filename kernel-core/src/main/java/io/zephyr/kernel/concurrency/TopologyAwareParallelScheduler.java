@@ -6,9 +6,18 @@ import io.sunshower.gyre.Scope;
 import io.zephyr.kernel.concurrency.Process.Mode;
 import io.zephyr.kernel.log.Logging;
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import lombok.val;
@@ -23,9 +32,15 @@ public class TopologyAwareParallelScheduler<K> {
 
   static final Logger log = Logging.get(TopologyAwareParallelScheduler.class, "Concurrency");
   private final WorkerPool workerPool;
+  private final TaskDurations durations;
 
   public TopologyAwareParallelScheduler(WorkerPool workerPool) {
+    this(workerPool, new TaskDurations());
+  }
+
+  public TopologyAwareParallelScheduler(WorkerPool workerPool, TaskDurations durations) {
     this.workerPool = workerPool;
+    this.durations = durations;
   }
 
   /**
@@ -37,99 +52,98 @@ public class TopologyAwareParallelScheduler<K> {
    */
   public TaskTracker<K> submit(Process<K> process, Scope context) {
     log.log(Level.INFO, "parallel.scheduler.schedulingtask", process);
-    val result = new StagedScheduleEnqueuer(process, context);
+    val result = new DataflowScheduleEnqueuer(process, context);
     workerPool.submit(
         () -> {
           result.run();
           return null;
         });
-    //    ForkJoinPool.commonPool().submit(result);
     log.log(Level.INFO, "parallel.scheduler.scheduledtask", process);
     return result;
   }
 
-  private static class NotifyingTask<K> implements Callable<Object>, Scope {
-
-    private final Scope scope;
-    private final NotifyingLatch<K> latch;
-    private final io.sunshower.gyre.Task<DirectedGraph.Edge<K>, Task> task;
+  /**
+   * a single vertex of the dataflow: tracks how many predecessors have yet to complete, and which
+   * tasks it releases once it has completed
+   */
+  static final class Node<K> {
 
-    public NotifyingTask(
-        io.sunshower.gyre.Task<DirectedGraph.Edge<K>, Task> task,
-        NotifyingLatch<K> latch,
-        final Scope scope) {
-      this.task = task;
-      this.latch = latch;
-      this.scope = scope;
-    }
+    /** longest-remaining-path first, earliest stage on ties */
+    static final Comparator<Node<?>> CRITICAL_PATH =
+        Comparator.<Node<?>>comparingLong(node -> node.priority)
+            .reversed()
+            .thenComparingInt(node -> node.stage);
 
-    @Override
-    @SuppressWarnings("unchecked")
-    public Object call() throws Exception {
-      val taskDef = task.getValue();
-      try {
-        latch.beforeTask(taskDef);
-        val result = task.getValue().run(this);
-        if (result != null) {
-          return result.value;
-        }
-        return null;
-      } catch (TaskException ex) {
+    final int stage;
+    final Phase phase;
+    final AtomicInteger pending;
+    final Set<Node<K>> successors;
+    final io.sunshower.gyre.Task<DirectedGraph.Edge<K>, Task> task;
 
-        if (ex.getStatus() == TaskStatus.UNRECOVERABLE) {
-          task.getValue().setState(Task.State.Failed);
-        } else {
-          task.getValue().setState(Task.State.Warning);
-        }
-        latch.onTaskError(taskDef, ex);
-        return null;
-      } catch (Throwable ex) {
-        if (log.isLoggable(Level.INFO)) {
-          log.log(Level.INFO, "Error processing task " + task.getValue().getName(), ex);
-        }
-        return null;
-      } finally {
-        latch.afterTask(taskDef);
-        latch.decrement(taskDef);
-      }
-    }
+    /** the estimated duration of the longest path from this task through its successors */
+    long priority;
 
-    @Override
-    public <T> void set(String name, T value) {
-      val tscope = task.getScope();
-      tscope.set(name, value);
+    Node(io.sunshower.gyre.Task<DirectedGraph.Edge<K>, Task> task, int stage, Phase phase) {
+      this.task = task;
+      this.stage = stage;
+      this.phase = phase;
+      this.pending = new AtomicInteger();
+      this.successors = new LinkedHashSet<>();
     }
 
-    @Override
-    @SuppressWarnings("unchecked")
-    public <T> T get(String name) {
-      val tscope = task.getScope();
-      val result = tscope.get(name);
-      if (result == null) {
-        return scope.get(name);
+    void precede(Node<K> successor) {
+      if (successors.add(successor)) {
+        successor.pending.incrementAndGet();
       }
-      return (T) result;
     }
+  }
 
-    @Override
-    public <E> E computeIfAbsent(String scannedPlugins, E o) {
-      return task.getScope().computeIfAbsent(scannedPlugins, o);
+  /**
+   * the tasks sharing one stage of the process. A phase starts when the first of its tasks starts
+   * and completes when the last of them completes. Tasks aren't held back until the previous phase
+   * completes, so phases may overlap
+   */
+  static final class Phase {
+    final AtomicBoolean started;
+    final AtomicInteger remaining;
+
+    Phase(int size) {
+      this.started = new AtomicBoolean();
+      this.remaining = new AtomicInteger(size);
     }
   }
 
-  final class StagedScheduleEnqueuer extends DefaultTaskEventDispatcher<K> implements Runnable {
+  /**
+   * releases each task as soon as its last predecessor completes instead of waiting for the
+   * entirety of its stage to drain. The stages computed by the process are only used to orient the
+   * edges of the execution graph.
+   *
+   * <p>Released tasks wait in a ready-queue ordered by critical path; each slot handed to the
+   * executor runs whichever ready task currently has the longest remaining path, so a bounded pool
+   * works on the critical path first
+   */
+  final class DataflowScheduleEnqueuer extends DefaultTaskEventDispatcher<K> implements Runnable {
 
     final Scope context;
     final Process.Mode mode;
     final Process<K> process;
     private final ExecutorService executor;
 
+    /** the number of released-but-incomplete tasks, plus one while roots are being released */
+    private final AtomicInteger outstanding;
+
+    private final PriorityBlockingQueue<Node<K>> ready;
+
+    private volatile boolean failed;
+
     @SuppressWarnings({"unchecked", "rawtypes"})
-    public StagedScheduleEnqueuer(Process<K> process, Scope context) {
+    public DataflowScheduleEnqueuer(Process<K> process, Scope context) {
       this.context = context;
       this.process = process;
       this.mode = process.getMode();
       this.executor = getExecutor();
+      this.outstanding = new AtomicInteger();
+      this.ready = new PriorityBlockingQueue<>(11, Node.CRITICAL_PATH);
       attachListeners();
     }
 
@@ -145,34 +159,134 @@ public class TopologyAwareParallelScheduler<K> {
 
     @Override
     public void run() {
-      outer:
-      for (val taskSet : process.getTasks()) {
-        val latch = new NotifyingLatch<K>(this, taskSet.size());
-        val results = new ArrayList<Task>();
+      outstanding.set(1);
+      try {
+        val roots = new ArrayList<Node<K>>();
+        for (val node : createNodes()) {
+          if (node.pending.get() == 0) {
+            roots.add(node);
+          }
+        }
+        release(roots);
+      } catch (Throwable ex) {
+        failed = true;
+        log.log(Level.SEVERE, "Encountered exception {0}", ex.getMessage());
+        log.log(Level.SEVERE, "Detail:", ex);
+      } finally {
+        onNodeFinished();
+      }
+    }
+
+    private List<Node<K>> createNodes() {
+      val stages = process.getTasks();
+      val nodes = new HashMap<Task, Node<K>>();
+      for (int i = 0; i < stages.size(); i++) {
+        val tasks = stages.get(i).getTasks();
+        val phase = new Phase(tasks.size());
+        for (val task : tasks) {
+          nodes.put(task.getValue(), new Node<>(task, i, phase));
+        }
+      }
+
+      val graph = process.getExecutionGraph();
+      for (val node : nodes.values()) {
+        for (val neighbor : graph.neighbors(node.task.getValue())) {
+          val adjacent = nodes.get(neighbor);
+          if (adjacent == null || adjacent.stage == node.stage) {
+            continue;
+          }
+          if (adjacent.stage < node.stage) {
+            adjacent.precede(node);
+          } else {
+            node.precede(adjacent);
+          }
+        }
+      }
+
+      val result = new ArrayList<>(nodes.values());
+      computePriorities(result);
+      return result;
+    }
+
+    /** successors always occupy a later stage, so visiting stages in reverse sees them first */
+    private void computePriorities(List<Node<K>> nodes) {
+      nodes.sort(Comparator.<Node<K>>comparingInt(node -> node.stage).reversed());
+      for (val node : nodes) {
+        long downstream = 0;
+        for (val successor : node.successors) {
+          downstream = Math.max(downstream, successor.priority);
+        }
+        node.priority = durations.estimate(node.task.getValue().getName()) + downstream;
+      }
+    }
+
+    /**
+     * every node is made ready before any slot is handed to the executor, so the first slot to run
+     * already sees all of them and picks the one with the longest path
+     */
+    private void release(List<Node<K>> nodes) {
+      if (nodes.isEmpty()) {
+        return;
+      }
+      outstanding.addAndGet(nodes.size());
+      ready.addAll(nodes);
+      for (int i = 0; i < nodes.size(); i++) {
         try {
-          for (val task : taskSet.getTasks()) {
-            val ntask = new NotifyingTask<>(task, latch, context);
-            executor.submit(ntask);
-            //            ntask.call();
-            results.add(task.getValue());
+          executor.submit(() -> new NotifyingTask(ready.poll()).call());
+        } catch (RejectedExecutionException ex) {
+          // nothing is released once failed, so retiring any ready node keeps slots and nodes even
+          failed = true;
+          val rejected = ready.poll();
+          if (rejected != null) {
+            log.log(
+                Level.WARNING, "Task {0} was rejected--not continuing", rejected.task.getValue());
           }
-          try {
-            latch.await();
-            for (val task : results) {
-              if (task.getState() == Task.State.Failed) {
-                log.log(Level.WARNING, "Task {0} failed--not continuing ", task.getName());
-                break outer;
-              }
-            }
-
-          } catch (InterruptedException e) {
+          onNodeFinished();
+        }
+      }
+    }
+
+    private void onTaskComplete(Node<K> node) {
+      val task = node.task.getValue();
+      if (task.getState() == Task.State.Failed) {
+        log.log(Level.WARNING, "Task {0} failed--not continuing ", task.getName());
+        failed = true;
+      }
+
+      if (!failed) {
+        val released = new ArrayList<Node<K>>(node.successors.size());
+        for (val successor : node.successors) {
+          if (successor.pending.decrementAndGet() == 0) {
+            released.add(successor);
           }
-        } catch (Throwable ex) {
-          log.log(Level.SEVERE, "Encountered exception {0}", ex.getMessage());
-          log.log(Level.SEVERE, "Detail:", ex);
         }
+        release(released);
       }
-      complete(process);
+      onNodeFinished();
+    }
+
+    private void onNodeFinished() {
+      if (outstanding.decrementAndGet() == 0) {
+        if (mode == Mode.SingleThreaded) {
+          executor.shutdown();
+        }
+        complete(process);
+      }
+    }
+
+    void beforeTask(Node<K> node, Task task) {
+      if (node.phase.started.compareAndSet(false, true)) {
+        dispatch(TaskEvents.TASK_PHASE_STARTING, new TaskPhaseEvent(task));
+      }
+      dispatch(TaskEvents.TASK_STARTING, new TaskPhaseEvent(task));
+    }
+
+    void afterTask(Task task) {
+      dispatch(TaskEvents.TASK_STARTING, new TaskPhaseEvent(task));
+    }
+
+    void onTaskError(Task task, TaskException ex) {
+      dispatch(TaskEvents.TASK_ERROR, new TaskPhaseEvent(task, ex));
     }
 
     void attachListeners() {
@@ -186,5 +300,75 @@ public class TopologyAwareParallelScheduler<K> {
         }
       }
     }
+
+    private final class NotifyingTask implements Callable<Object>, Scope {
+
+      private final Node<K> node;
+      private final io.sunshower.gyre.Task<DirectedGraph.Edge<K>, Task> task;
+
+      NotifyingTask(Node<K> node) {
+        this.node = node;
+        this.task = node.task;
+      }
+
+      @Override
+      @SuppressWarnings("unchecked")
+      public Object call() throws Exception {
+        val taskDef = task.getValue();
+        val started = System.nanoTime();
+        try {
+          beforeTask(node, taskDef);
+          val result = taskDef.run(this);
+          if (result != null) {
+            return result.value;
+          }
+          return null;
+        } catch (TaskException ex) {
+
+          if (ex.getStatus() == TaskStatus.UNRECOVERABLE) {
+            taskDef.setState(Task.State.Failed);
+          } else {
+            taskDef.setState(Task.State.Warning);
+          }
+          onTaskError(taskDef, ex);
+          return null;
+        } catch (Throwable ex) {
+          if (log.isLoggable(Level.INFO)) {
+            log.log(Level.INFO, "Error processing task " + taskDef.getName(), ex);
+          }
+          return null;
+        } finally {
+          durations.record(taskDef.getName(), System.nanoTime() - started);
+          afterTask(taskDef);
+          dispatch(TaskEvents.TASK_COMPLETE, new TaskPhaseEvent(taskDef));
+          if (node.phase.remaining.decrementAndGet() == 0) {
+            dispatch(TaskEvents.TASK_PHASE_COMPLETE, new TaskPhaseEvent(null));
+          }
+          onTaskComplete(node);
+        }
+      }
+
+      @Override
+      public <T> void set(String name, T value) {
+        val tscope = task.getScope();
+        tscope.set(name, value);
+      }
+
+      @Override
+      @SuppressWarnings("unchecked")
+      public <T> T get(String name) {
+        val tscope = task.getScope();
+        val result = tscope.get(name);
+        if (result == null) {
+          return context.get(name);
+        }
+        return (T) result;
+      }
+
+      @Override
+      public <E> E computeIfAbsent(String scannedPlugins, E o) {
+        return task.getScope().computeIfAbsent(scannedPlugins, o);
+      }
+    }
   }
 }
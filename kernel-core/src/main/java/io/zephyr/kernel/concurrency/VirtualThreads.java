@@ -0,0 +1,63 @@
+package io.zephyr.kernel.concurrency;
+
+import io.zephyr.kernel.log.Logging;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.concurrent.ThreadFactory;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import lombok.val;
+
+/**
+ * creates virtual threads on runtimes that provide them (Thread.ofVirtual() was finalized in JDK
+ * 21). The kernel is compiled against an earlier JDK, so the builder is resolved reflectively once.
+ * On older runtimes this falls back to platform threads
+ */
+@SuppressWarnings({"PMD.DoNotUseThreads", "PMD.AvoidCatchingThrowable"})
+final class VirtualThreads {
+
+  static final Logger log = Logging.get(VirtualThreads.class, "Concurrency");
+
+  private static final ThreadFactory factory = resolveFactory();
+
+  private VirtualThreads() {
+    throw new IllegalStateException("No instances");
+  }
+
+  /** @return true if this runtime can create virtual threads */
+  static boolean isSupported() {
+    return factory != null;
+  }
+
+  /**
+   * @param task the task the thread will run
+   * @param name the name of the thread
+   * @param virtual whether a virtual thread should be created if the runtime supports it
+   * @return an unstarted thread
+   */
+  static Thread newThread(Runnable task, String name, boolean virtual) {
+    if (!(virtual && isSupported())) {
+      return new Thread(task, name);
+    }
+    val thread = factory.newThread(task);
+    thread.setName(name);
+    return thread;
+  }
+
+  private static ThreadFactory resolveFactory() {
+    try {
+      val lookup = MethodHandles.publicLookup();
+      val builderType = Class.forName("java.lang.Thread$Builder");
+      val ofVirtualType = Class.forName("java.lang.Thread$Builder$OfVirtual");
+      MethodHandle ofVirtual =
+          lookup.findStatic(Thread.class, "ofVirtual", MethodType.methodType(ofVirtualType));
+      MethodHandle factory =
+          lookup.findVirtual(builderType, "factory", MethodType.methodType(ThreadFactory.class));
+      return (ThreadFactory) factory.invoke(ofVirtual.invoke());
+    } catch (Throwable ex) {
+      log.log(Level.FINE, "Virtual threads are not supported by this runtime", ex);
+      return null;
+    }
+  }
+}
@@ -13,9 +13,11 @@ import io.zephyr.kernel.log.Logging;
 import io.zephyr.kernel.service.DefaultServiceDefinition;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.ServiceLoader;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Predicate;
 import java.util.function.Supplier;
 import java.util.logging.Level;
@@ -34,12 +36,33 @@ public class DefaultModuleContext implements ModuleContext {
   static final Object lock = new Object();
   static final Logger log = Logging.get(DefaultModuleContext.class);
 
+  /**
+   * advanced whenever a module context is created or released (i.e. whenever a module starts or
+   * stops), which invalidates every cached resolution--a module that just started may provide a
+   * language previously resolved from the kernel, and one that stopped may have provided it
+   */
+  static final AtomicLong generation = new AtomicLong();
+
+  /**
+   * language -> the extension that last handled it for this context. Resolution walks every active
+   * module's service loaders, so it only happens on a miss or once the modules have changed
+   */
+  final Map<String, ResolvedExtension> extensions;
+
   public DefaultModuleContext(
       final Module module, final Kernel kernel, final VolatileStorage delegate) {
     this.module = module;
     this.kernel = kernel;
     this.delegate = delegate;
     this.context = new ConcurrentHashMap<>();
+    this.extensions = new ConcurrentHashMap<>();
+    generation.incrementAndGet();
+  }
+
+  /** drop the extensions this context resolved. Called when its module stops */
+  public void release() {
+    extensions.clear();
+    generation.incrementAndGet();
   }
 
   @Override
@@ -68,15 +91,43 @@ public class DefaultModuleContext implements ModuleContext {
    */
   @Override
   public <T> Predicate<T> createFilter(Query<T> query) {
-    var ext = resolveModuleExpressionLanguageExtension(query);
-    if (ext == null) {
-      ext = resolveKernelModuleExpressionLanguageExtension(query);
+    val language = normalize(query.getLanguage());
+    val cached = extensions.get(language);
+    if (cached != null && cached.isValidFor(query)) {
+      return cached.extension.createPredicate(query);
     }
-    if (ext == null) {
+
+    val resolved = resolveExpressionLanguageExtension(query);
+    if (resolved == null) {
       throw new ModuleException(
           "Unable to locate extension for expression language: " + query.getLanguage());
     }
-    return ext.createPredicate(query);
+    extensions.put(language, resolved);
+    return resolved.extension.createPredicate(query);
+  }
+
+  private <T> ResolvedExtension resolveExpressionLanguageExtension(Query<T> query) {
+    if (log.isLoggable(Level.FINE)) {
+      log.log(Level.FINE, "el.locating.evaluator.modules");
+    }
+    val current = generation.get();
+    for (val module : kernel.getModuleManager().getModules()) {
+      if (module.getLifecycle().getState().isAtLeast(Lifecycle.State.Active)) {
+        val ext = resolveModuleExpressionLanguageExtensionInModule(query, module);
+        if (ext != null) {
+          return new ResolvedExtension(current, module, ext);
+        }
+      }
+    }
+    if (log.isLoggable(Level.FINE)) {
+      log.log(Level.FINE, "el.locating.evaluator.modules.failed");
+    }
+    val ext = resolveKernelModuleExpressionLanguageExtension(query);
+    return ext == null ? null : new ResolvedExtension(current, null, ext);
+  }
+
+  private static String normalize(String language) {
+    return language == null ? "" : language.trim().toLowerCase(Locale.ROOT);
   }
 
   @Override
@@ -142,24 +193,15 @@ public class DefaultModuleContext implements ModuleContext {
   }
 
   @Override
-  @SuppressWarnings({"unchecked", "PMD.DataflowAnomalyAnalysis"})
   public <T> List<ServiceReference<T>> getReferences(Class<T> type) {
-    synchronized (lock) {
-      val moduleManager = kernel.getModuleManager();
-      val serviceRegistry = kernel.getServiceRegistry();
-      val result = new ArrayList<ServiceReference<T>>();
-      for (val module : moduleManager.getModules(Lifecycle.State.Active)) {
-        val set = serviceRegistry.getRegistrations(module);
-        if (set != null) {
-          for (val registration : set) {
-            if (registration.provides(type)) {
-              result.add((ServiceReference<T>) registration.getReference());
-            }
-          }
-        }
+    val result = new ArrayList<ServiceReference<T>>();
+    for (val registration : kernel.getServiceRegistry().getRegistrations(type)) {
+      val reference = registration.getReference();
+      if (reference.getModule().getLifecycle().getState() == Lifecycle.State.Active) {
+        result.add(reference);
       }
-      return result;
     }
+    return result;
   }
 
   @Override
@@ -200,24 +242,6 @@ public class DefaultModuleContext implements ModuleContext {
     return result;
   }
 
-  private <T> ExpressionLanguageExtension resolveModuleExpressionLanguageExtension(Query<T> query) {
-    if (log.isLoggable(Level.FINE)) {
-      log.log(Level.FINE, "el.locating.evaluator.modules");
-    }
-    for (val module : kernel.getModuleManager().getModules()) {
-      val lifecycle = module.getLifecycle();
-      val state = lifecycle.getState();
-      if (state.isAtLeast(Lifecycle.State.Active)) {
-        val serviceLoader = resolveModuleExpressionLanguageExtensionInModule(query, module);
-        if (serviceLoader != null) return serviceLoader;
-      }
-    }
-    if (log.isLoggable(Level.FINE)) {
-      log.log(Level.FINE, "el.locating.evaluator.modules.failed");
-    }
-    return null;
-  }
-
   private <T> ExpressionLanguageExtension resolveModuleExpressionLanguageExtensionInModule(
       Query<T> query, Module module) {
     if (log.isLoggable(Level.FINE)) {
@@ -299,4 +323,22 @@ public class DefaultModuleContext implements ModuleContext {
   public void stop() {
     throw new IllegalStateException("You cannot call start()");
   }
+
+  static final class ResolvedExtension {
+    final long generation;
+    final Module owner;
+    final ExpressionLanguageExtension extension;
+
+    ResolvedExtension(long generation, Module owner, ExpressionLanguageExtension extension) {
+      this.generation = generation;
+      this.owner = owner;
+      this.extension = extension;
+    }
+
+    <T> boolean isValidFor(Query<T> query) {
+      return generation == DefaultModuleContext.generation.get()
+          && (owner == null || owner.getLifecycle().getState().isAtLeast(Lifecycle.State.Active))
+          && extension.supports(query);
+    }
+  }
 }
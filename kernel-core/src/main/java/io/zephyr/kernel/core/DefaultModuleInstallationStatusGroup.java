@@ -5,6 +5,7 @@ import static io.zephyr.kernel.core.actions.ModulePhaseEvents.MODULE_DOWNLOAD_FA
 import static io.zephyr.kernel.core.actions.ModulePhaseEvents.MODULE_FILESYSTEM_CREATION_FAILED;
 import static io.zephyr.kernel.core.actions.ModulePhaseEvents.MODULE_SCAN_FAILED;
 import static io.zephyr.kernel.core.actions.ModulePhaseEvents.MODULE_TRANSFER_FAILED;
+import static io.zephyr.kernel.core.actions.ModulePhaseEvents.MODULE_VERIFICATION_FAILED;
 import static java.lang.String.format;
 
 import io.sunshower.gyre.Pair;
@@ -24,6 +25,7 @@ import io.zephyr.kernel.core.actions.ModulePhaseEvents;
 import io.zephyr.kernel.core.actions.ModuleScanPhase;
 import io.zephyr.kernel.core.actions.ModuleTransferPhase;
 import io.zephyr.kernel.core.actions.ModuleUnpackPhase;
+import io.zephyr.kernel.core.actions.ModuleVerificationPhase;
 import io.zephyr.kernel.core.actions.WriteKernelModuleListPhase;
 import io.zephyr.kernel.core.actions.WritePluginDescriptorPhase;
 import io.zephyr.kernel.core.lifecycle.KernelModuleListReadPhase;
@@ -92,6 +94,7 @@ final class DefaultModuleInstallationStatusGroup implements ModuleInstallationSt
         EventListener.Options.REMOVE_AFTER_DISPATCH,
         MODULE_DOWNLOAD_FAILED,
         MODULE_SCAN_FAILED,
+        MODULE_VERIFICATION_FAILED,
         MODULE_TRANSFER_FAILED,
         MODULE_ASSEMBLY_EXTRACTION_FAILED,
         MODULE_FILESYSTEM_CREATION_FAILED);
@@ -124,10 +127,15 @@ final class DefaultModuleInstallationStatusGroup implements ModuleInstallationSt
 
   private void addIntermediates(TaskBuilder taskBuilder, ModuleInstallationGroup group) {
 
-    /** synchronization point */
+    /**
+     * synchronization point: every kernel module the group installs is listed in a single write.
+     * Only this needs the module list read at the start of the installation--nothing else waits
+     * for it
+     */
     val writeModuleList = "module:kernel:write:list";
     val writeTask = new WriteKernelModuleListPhase(writeModuleList);
     taskBuilder.register(writeTask);
+    taskBuilder.task(writeModuleList).dependsOn("module:list:read");
 
     val writePluginDescriptorName = "module:kernel:install:plugins";
     val writePluginDescriptorPhase = new WritePluginDescriptorPhase(writePluginDescriptorName);
@@ -135,6 +143,7 @@ final class DefaultModuleInstallationStatusGroup implements ModuleInstallationSt
     taskBuilder.task(writePluginDescriptorName).dependsOn(writeModuleList);
 
     val requests = group.getModules();
+    val verifySignatures = SunshowerKernel.getKernelOptions().isVerifyModuleSignatures();
 
     for (val request : requests) {
 
@@ -145,7 +154,6 @@ final class DefaultModuleInstallationStatusGroup implements ModuleInstallationSt
       task.parameters()
           .define(Pair.of(ModuleDownloadPhase.DOWNLOAD_URL, URL.class), request.getLocation());
       taskBuilder.register(task);
-      taskBuilder.task(name).dependsOn("module:list:read");
 
       /** scan modules */
       val moduleName = format("module:scan:%s", location);
@@ -159,11 +167,21 @@ final class DefaultModuleInstallationStatusGroup implements ModuleInstallationSt
       taskBuilder.register(scanTask);
       taskBuilder.task(moduleName).dependsOn(name);
 
+      /** verify module signatures (optional) */
+      var scannedName = moduleName;
+      if (verifySignatures) {
+        val verifyModuleName = format("module:verify:%s", location);
+        val verifyTask = new ModuleVerificationPhase(verifyModuleName);
+        taskBuilder.register(verifyTask);
+        taskBuilder.task(verifyModuleName).dependsOn(moduleName);
+        scannedName = verifyModuleName;
+      }
+
       /** transfer modules */
       val transferModuleName = format("module:transfer:%s", location);
       val transferTask = new ModuleTransferPhase(transferModuleName);
       taskBuilder.register(transferTask);
-      taskBuilder.task(transferModuleName).dependsOn(moduleName);
+      taskBuilder.task(transferModuleName).dependsOn(scannedName);
 
       /** unpack modules */
       val unpackModuleName = format("module:unpack:%s", location);
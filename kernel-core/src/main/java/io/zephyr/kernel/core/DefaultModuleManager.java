@@ -4,6 +4,7 @@ import io.sunshower.lang.events.EventSource;
 import io.zephyr.kernel.Coordinate;
 import io.zephyr.kernel.Lifecycle;
 import io.zephyr.kernel.Module;
+import io.zephyr.kernel.concurrency.Blocking;
 import io.zephyr.kernel.dependencies.DependencyGraph;
 import io.zephyr.kernel.log.Logging;
 import io.zephyr.kernel.module.ModuleInstallationGroup;
@@ -68,13 +69,11 @@ public class DefaultModuleManager implements ModuleManager, EventSource {
 
   @Override
   public List<Module> getModules() {
-    synchronized (dependencyGraph) {
-      val results = new ArrayList<Module>();
-      for (val module : dependencyGraph) {
-        results.add(module);
-      }
-      return results;
+    val results = new ArrayList<Module>();
+    for (val module : dependencyGraph) {
+      results.add(module);
     }
+    return results;
   }
 
   @Override
@@ -119,6 +118,6 @@ public class DefaultModuleManager implements ModuleManager, EventSource {
       group.addRequest(new ModuleLifecycleChangeRequest(module, Actions.Stop));
     }
     val moduleLifecycleChange = new DefaultModuleLifecycleStatusChangeGroup(kernel, this, group);
-    kernel.getScheduler().submit(moduleLifecycleChange.getProcess()).toCompletableFuture().get();
+    Blocking.get(kernel.getScheduler().submit(moduleLifecycleChange.getProcess()));
   }
 }
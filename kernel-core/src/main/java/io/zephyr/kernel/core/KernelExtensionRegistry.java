@@ -0,0 +1,98 @@
+package io.zephyr.kernel.core;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.ServiceLoader;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.val;
+
+/**
+ * the kernel extensions (e.g. module scanners and assembly extractors) provided by the kernel
+ * classloader. Each extension type is discovered once per kernel classloader--installing a module
+ * doesn't re-scan META-INF/services or contend for the kernel's lock. A new generation is started
+ * whenever the kernel's classloader changes (i.e. when kernel modules are installed and the kernel
+ * is restarted)
+ */
+@SuppressWarnings({"PMD.AvoidUsingVolatile", "PMD.DoNotUseThreads"})
+public final class KernelExtensionRegistry {
+
+  private final Kernel kernel;
+  private volatile Generation generation;
+
+  public KernelExtensionRegistry(Kernel kernel) {
+    this.kernel = kernel;
+  }
+
+  /**
+   * resolve the extensions for a kernel: the kernel's own registry if it has one, otherwise a
+   * registry for this call only
+   *
+   * @param kernel the kernel
+   * @return its registry
+   */
+  public static KernelExtensionRegistry of(Kernel kernel) {
+    if (kernel instanceof SunshowerKernel) {
+      return ((SunshowerKernel) kernel).getExtensionRegistry();
+    }
+    return new KernelExtensionRegistry(kernel);
+  }
+
+  /**
+   * @param type the extension type
+   * @param <T> the type of the extension
+   * @return the extensions of that type, in the order the kernel classloader provides them. The
+   *     result is shared and may not be modified
+   */
+  @SuppressWarnings("unchecked")
+  public <T> List<T> get(Class<T> type) {
+    val current = currentGeneration();
+    return (List<T>) current.extensions.computeIfAbsent(type, t -> load(t, current.classLoader));
+  }
+
+  /** drop every extension discovered so far */
+  public void invalidate() {
+    generation = null;
+  }
+
+  private Generation currentGeneration() {
+    val classLoader = kernel.getClassLoader();
+    var result = generation;
+    if (result == null || result.classLoader != classLoader) {
+      synchronized (this) {
+        result = generation;
+        if (result == null || result.classLoader != classLoader) {
+          result = new Generation(classLoader);
+          generation = result;
+        }
+      }
+    }
+    return result;
+  }
+
+  private static List<?> load(Class<?> type, ClassLoader classLoader) {
+    val currentThread = Thread.currentThread();
+    val currentContextClassloader = currentThread.getContextClassLoader();
+    try {
+      currentThread.setContextClassLoader(classLoader);
+      val result = new ArrayList<Object>();
+      for (val service : ServiceLoader.load(type, classLoader)) {
+        result.add(service);
+      }
+      return Collections.unmodifiableList(result);
+    } finally {
+      currentThread.setContextClassLoader(currentContextClassloader);
+    }
+  }
+
+  static final class Generation {
+    final ClassLoader classLoader;
+    final Map<Class<?>, List<?>> extensions;
+
+    Generation(ClassLoader classLoader) {
+      this.classLoader = classLoader;
+      this.extensions = new ConcurrentHashMap<>();
+    }
+  }
+}
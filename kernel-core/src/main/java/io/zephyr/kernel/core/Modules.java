@@ -179,6 +179,30 @@ public class Modules {
     return false;
   }
 
+  /**
+   * resolves modules restored from their descriptors as a single batch. Unlike
+   * performInstallation, this does not rewrite the descriptors that they were just restored from.
+   * The installation of the set is reported as completed even if nothing was restored
+   *
+   * @param kernel the kernel being restored
+   * @param restoredPlugins the modules hydrated from the kernel's memento
+   */
+  public static void performRestoration(SunshowerKernel kernel, Set<Module> restoredPlugins) {
+    if (restoredPlugins.isEmpty()) {
+      kernel.dispatchEvent(
+          ModulePhaseEvents.MODULE_SET_INSTALLATION_COMPLETED, Events.create(restoredPlugins));
+      return;
+    }
+    log.log(Level.INFO, "plugin.phase.resolvingplugins");
+    val moduleManager = kernel.getModuleManager();
+    val dependencyGraph = moduleManager.getDependencyGraph();
+    checkForUnresolvedDependencies(kernel, dependencyGraph, restoredPlugins);
+    checkForCyclicDependencies(kernel, dependencyGraph, restoredPlugins);
+    resolvePlugins(kernel, moduleManager, restoredPlugins);
+    kernel.dispatchEvent(
+        ModulePhaseEvents.MODULE_SET_INSTALLATION_COMPLETED, Events.create(restoredPlugins));
+  }
+
   private static void handleKernelModules(Scope scope, SunshowerKernel kernel) {
     log.log(Level.INFO, "plugin.phase.noplugins");
     final Set<Module> installedKernelModules =
@@ -349,7 +373,9 @@ public class Modules {
   public static void start(Module toStart, Kernel kernel) throws IOException {
     if (toStart instanceof DefaultModule) {
       val module = (DefaultModule) toStart;
-      val taskQueue = new ModuleThread(module, kernel);
+      val taskQueue =
+          new ModuleThread(
+              module, kernel, SunshowerKernel.getKernelOptions().isVirtualModuleThreads());
       module.setTaskQueue(taskQueue);
       taskQueue.start();
       kernel.getModuleManager().getModuleLoader().install(module);
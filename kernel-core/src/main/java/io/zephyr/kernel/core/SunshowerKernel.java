@@ -14,11 +14,9 @@ import io.zephyr.kernel.Lifecycle;
 import io.zephyr.kernel.Module;
 import io.zephyr.kernel.VolatileStorage;
 import io.zephyr.kernel.classloading.KernelClassloader;
+import io.zephyr.kernel.concurrency.Blocking;
 import io.zephyr.kernel.concurrency.Process;
 import io.zephyr.kernel.concurrency.Scheduler;
-import io.zephyr.kernel.concurrency.Tasks;
-import io.zephyr.kernel.core.actions.ModuleInstallationCompletionPhase;
-import io.zephyr.kernel.core.actions.WritePluginDescriptorPhase;
 import io.zephyr.kernel.core.lifecycle.DefaultKernelLifecycle;
 import io.zephyr.kernel.launch.KernelOptions;
 import io.zephyr.kernel.log.Logging;
@@ -67,6 +65,7 @@ public class SunshowerKernel implements Kernel, EventSource {
   private final Scheduler<String> scheduler;
   private final ServiceRegistry serviceRegistry;
   private final EventSource eventDispatcher;
+  @Getter private final KernelExtensionRegistry extensionRegistry;
   /** accessable fields */
   @Getter private final ModuleManager moduleManager;
   /** Instance fields */
@@ -88,6 +87,7 @@ public class SunshowerKernel implements Kernel, EventSource {
     this.storage = new ConcurrentVolatileStorage();
     this.lifecycle = new DefaultKernelLifecycle(this, scheduler, parentClassloader);
     this.eventDispatcher = new AbstractEventSource() {};
+    this.extensionRegistry = new KernelExtensionRegistry(this);
   }
 
   public SunshowerKernel(
@@ -159,7 +159,7 @@ public class SunshowerKernel implements Kernel, EventSource {
   @SneakyThrows
   public void start() {
     serviceRegistry.initialize(this);
-    lifecycle.start().toCompletableFuture().get();
+    Blocking.get(lifecycle.start());
   }
 
   @Override
@@ -173,9 +173,10 @@ public class SunshowerKernel implements Kernel, EventSource {
   public void stop() {
     moduleManager.close();
     //    eventDispatcher.stop();
-    lifecycle.stop().toCompletableFuture().get();
+    Blocking.get(lifecycle.stop());
     serviceRegistry.close();
     storage.clear();
+    extensionRegistry.invalidate();
     if (classLoader instanceof Closeable) {
       ((Closeable) classLoader).close();
     }
@@ -279,7 +280,7 @@ public class SunshowerKernel implements Kernel, EventSource {
   @Override
   public void restore(Memento memento) {
     try {
-      doRestore(memento).toCompletableFuture().get();
+      Blocking.get(doRestore(memento));
     } catch (Exception ex) {
       log.log(Level.WARNING, "failed to restore kernel state.  Reason: {0}", ex.getMessage());
       if (log.isLoggable(Level.FINE)) {
@@ -288,30 +289,35 @@ public class SunshowerKernel implements Kernel, EventSource {
     }
   }
 
+  /**
+   * plugins are hydrated from their mementos concurrently on the kernel executor, then resolved
+   * into the dependency graph as one batch, and finally started by a single lifecycle process
+   */
   @SuppressWarnings("PMD.DataflowAnomalyAnalysis")
   private CompletionStage<Void> doRestore(Memento memento) {
     val pluginsMemento = memento.childNamed("plugins");
     val pluginMementoProvider = Memento.loadProvider(getClassLoader());
     val pluginMementos = pluginsMemento.getChildren("plugin");
 
-    val modules = new LinkedHashSet<Module>(pluginMementos.size());
-    val stateMap = new HashMap<Coordinate, Lifecycle.State>(pluginMementos.size());
-
+    val executor = scheduler.getKernelExecutor();
+    val hydrations = new ArrayList<CompletableFuture<Module>>(pluginMementos.size());
     for (val pluginMemento : pluginMementos) {
-      val plugin = hydrate(pluginMementoProvider, pluginMemento, modules);
-      stateMap.put(
-          plugin.getCoordinate(),
-          Lifecycle.State.valueOf(pluginMemento.read("state", String.class)));
+      hydrations.add(
+          CompletableFuture.supplyAsync(
+              () -> hydrate(pluginMementoProvider, pluginMemento), executor));
     }
 
-    val process =
-        Tasks.newProcess("kernel:module:load")
-            .register(new WritePluginDescriptorPhase("kernel:module:descriptors:load"))
-            .create();
-    process.getContext().set(ModuleInstallationCompletionPhase.INSTALLED_PLUGINS, modules);
-    process.getContext().set("SunshowerKernel", this);
+    val modules = new LinkedHashSet<Module>(pluginMementos.size());
+    val stateMap = new HashMap<Coordinate, Lifecycle.State>(pluginMementos.size());
     try {
-      scheduler.submit(process).toCompletableFuture().get();
+      for (int i = 0; i < hydrations.size(); i++) {
+        val plugin = Blocking.join(hydrations.get(i));
+        modules.add(plugin);
+        stateMap.put(
+            plugin.getCoordinate(),
+            Lifecycle.State.valueOf(pluginMementos.get(i).read("state", String.class)));
+      }
+      Modules.performRestoration(this, modules);
       return requestStart(modules, stateMap).thenAccept(t -> {});
     } catch (Exception ex) {
       throw new IllegalStateException(ex);
@@ -334,8 +340,7 @@ public class SunshowerKernel implements Kernel, EventSource {
     return moduleManager.prepare(startGroup).commit();
   }
 
-  private Module hydrate(
-      MementoProvider pluginMementoProvider, Memento pluginMemento, Set<Module> modules) {
+  private Module hydrate(MementoProvider pluginMementoProvider, Memento pluginMemento) {
     try {
 
       val coordinate = pluginMemento.read("coordinate", Coordinate.class);
@@ -351,7 +356,6 @@ public class SunshowerKernel implements Kernel, EventSource {
       plugin.setFileSystem(filesystem);
 
       hydratePlugin(pluginMementoProvider, plugin, filesystem);
-      modules.add(plugin);
       return plugin;
     } catch (IOException ex) {
       throw new RuntimeException(ex);
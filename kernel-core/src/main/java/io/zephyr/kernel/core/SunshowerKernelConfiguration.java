@@ -3,11 +3,9 @@ package io.zephyr.kernel.core;
 import dagger.BindsInstance;
 import dagger.Component;
 import io.zephyr.kernel.concurrency.ExecutorWorkerPool;
-import io.zephyr.kernel.concurrency.NamedThreadFactory;
 import io.zephyr.kernel.concurrency.WorkerPool;
 import io.zephyr.kernel.dependencies.DependencyGraph;
 import io.zephyr.kernel.launch.KernelOptions;
-import java.util.concurrent.Executors;
 import javax.inject.Singleton;
 
 @Singleton
@@ -29,9 +27,8 @@ public interface SunshowerKernelConfiguration {
       return create(
           options,
           bootstrapClassloader,
-          new ExecutorWorkerPool(
-              Executors.newFixedThreadPool(1),
-              Executors.newCachedThreadPool(new NamedThreadFactory("kernel"))));
+          ExecutorWorkerPool.workStealing(
+              options.getConcurrency(), options.getKernelConcurrency()));
     }
   }
 }
@@ -47,6 +47,9 @@ public class SunshowerKernelInjectionModule {
     SunshowerKernel.setKernelOptions(options);
     val kernel = new SunshowerKernel(moduleManager, registry, scheduler, classLoader);
     val classpathManager = Modules.moduleClasspathManager(graph, classLoader, kernel);
+    if (classpathManager instanceof KernelModuleLoader) {
+      ((KernelModuleLoader) classpathManager).setClassListsEnabled(options.isModuleClassLists());
+    }
     kernel.setModuleClasspathManager(classpathManager);
     moduleManager.initialize(kernel);
     Framework.setInstance(kernel);
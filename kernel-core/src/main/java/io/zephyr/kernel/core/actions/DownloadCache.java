@@ -0,0 +1,283 @@
+package io.zephyr.kernel.core.actions;
+
+import java.io.IOException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Properties;
+import lombok.val;
+
+/**
+ * a content-addressed store of downloaded module artifacts. Each artifact is stored once under
+ * blobs/ named by the SHA-256 of its content, and each source URL is recorded under urls/ along
+ * with the digest and the validators (modification time and size) the source reported when it was
+ * downloaded. A later download of the same URL whose validators are unchanged is served from the
+ * store without transferring the content again.
+ *
+ * <p>The store is bounded: after each store, the least-recently used URLs are forgotten until the
+ * blobs still referenced fit within the maximum size, and blobs no URL refers to are removed
+ */
+@SuppressWarnings({"PMD.EmptyCatchBlock", "PMD.AvoidInstantiatingObjectsInLoops"})
+final class DownloadCache {
+
+  static final String ALGORITHM = "SHA-256";
+
+  /** the default bound on the total size of the stored blobs */
+  static final long DEFAULT_MAX_SIZE = 1L << 30;
+
+  static final String TEMPORARY_SUFFIX = ".tmp";
+
+  /**
+   * serializes stores, evictions and materializations, so that a blob is never evicted before it's
+   * referenced or while it's being materialized
+   */
+  static final Object lock = new Object();
+
+  static final String DIGEST = "digest";
+  static final String LAST_MODIFIED = "last-modified";
+  static final String LENGTH = "length";
+
+  private final Path blobs;
+  private final Path urls;
+  private final long maxSize;
+
+  DownloadCache(Path root) {
+    this(root, DEFAULT_MAX_SIZE);
+  }
+
+  DownloadCache(Path root, long maxSize) {
+    this.blobs = root.resolve("blobs");
+    this.urls = root.resolve("urls");
+    this.maxSize = maxSize;
+  }
+
+  static MessageDigest newDigest() {
+    try {
+      return MessageDigest.getInstance(ALGORITHM);
+    } catch (NoSuchAlgorithmException ex) {
+      throw new IllegalStateException("Every JVM must support " + ALGORITHM, ex);
+    }
+  }
+
+  /**
+   * @param url the source of the artifact
+   * @param lastModified the modification time the source reports now
+   * @param length the size the source reports now
+   * @return the cached content of the url, or null if it isn't cached or the source may have
+   *     changed since it was
+   */
+  Path lookup(URL url, long lastModified, long length) throws IOException {
+    if (lastModified <= 0) {
+      return null;
+    }
+    val entry = urls.resolve(hash(url.toExternalForm()));
+    if (!Files.exists(entry)) {
+      return null;
+    }
+    val properties = new Properties();
+    try (val input = Files.newInputStream(entry)) {
+      properties.load(input);
+    }
+    if (!String.valueOf(lastModified).equals(properties.getProperty(LAST_MODIFIED))
+        || !String.valueOf(length).equals(properties.getProperty(LENGTH))) {
+      return null;
+    }
+    val digest = properties.getProperty(DIGEST);
+    if (digest == null) {
+      return null;
+    }
+    val blob = blobs.resolve(digest);
+    if (!Files.exists(blob)) {
+      return null;
+    }
+    touch(entry);
+    return blob;
+  }
+
+  /**
+   * materializes the cached content of the url at target. Looking the content up and materializing
+   * it happen under the lock, so a concurrent store can't evict it in between
+   *
+   * @param target the location the content is expected at
+   * @return the cached content, or null (leaving target alone) if it isn't cached or the source may
+   *     have changed since it was
+   * @see #lookup(URL, long, long)
+   */
+  Path restore(URL url, long lastModified, long length, Path target) throws IOException {
+    synchronized (lock) {
+      val blob = lookup(url, lastModified, length);
+      if (blob != null) {
+        materialize(blob, target);
+      }
+      return blob;
+    }
+  }
+
+  /**
+   * moves a freshly-downloaded artifact into the store (unless identical content is already
+   * there), records where it came from, and materializes the stored content back where it was
+   * downloaded to
+   *
+   * @return the stored content
+   */
+  Path store(URL url, Path downloaded, byte[] digest, long lastModified, long length)
+      throws IOException {
+    val name = toHex(digest);
+    synchronized (lock) {
+      Files.createDirectories(blobs);
+      Files.createDirectories(urls);
+      val blob = blobs.resolve(name);
+      if (!Files.exists(blob)) {
+        try {
+          move(downloaded, blob);
+        } catch (FileAlreadyExistsException ex) {
+          // another installation stored the same content first
+        }
+      }
+
+      val properties = new Properties();
+      properties.setProperty(DIGEST, name);
+      properties.setProperty(LAST_MODIFIED, String.valueOf(lastModified));
+      properties.setProperty(LENGTH, String.valueOf(length));
+      val entry = urls.resolve(hash(url.toExternalForm()));
+      val temporary = Files.createTempFile(urls, "url", TEMPORARY_SUFFIX);
+      try (val output = Files.newOutputStream(temporary)) {
+        properties.store(output, url.toExternalForm());
+      }
+      Files.move(temporary, entry, StandardCopyOption.REPLACE_EXISTING);
+      evict(entry);
+      materialize(blob, downloaded);
+      return blob;
+    }
+  }
+
+  /**
+   * forgets the least-recently used URLs until the blobs the rest refer to fit within the maximum
+   * size, then removes every blob that's no longer referred to. Must be called holding the lock
+   *
+   * @param retained the entry just stored, which is never forgotten
+   */
+  private void evict(Path retained) throws IOException {
+    val entries = new ArrayList<Path>();
+    try (val stream = Files.newDirectoryStream(urls)) {
+      for (val entry : stream) {
+        if (!entry.getFileName().toString().endsWith(TEMPORARY_SUFFIX)) {
+          entries.add(entry);
+        }
+      }
+    }
+    val lastUsed = new HashMap<Path, Long>();
+    for (val entry : entries) {
+      lastUsed.put(entry, lastModified(entry));
+    }
+    entries.sort(Comparator.comparing(lastUsed::get).reversed());
+    entries.remove(retained);
+    entries.add(0, retained);
+
+    val referenced = new HashSet<String>();
+    long size = 0;
+    for (val entry : entries) {
+      val digest = digestOf(entry);
+      val blob = digest == null ? null : blobs.resolve(digest);
+      if (blob == null || !Files.exists(blob)) {
+        delete(entry);
+        continue;
+      }
+      if (referenced.contains(digest)) {
+        continue;
+      }
+      val blobSize = Files.size(blob);
+      if (!entry.equals(retained) && size + blobSize > maxSize) {
+        delete(entry);
+        continue;
+      }
+      referenced.add(digest);
+      size += blobSize;
+    }
+
+    try (val stream = Files.newDirectoryStream(blobs)) {
+      for (val blob : stream) {
+        if (!referenced.contains(blob.getFileName().toString())) {
+          delete(blob);
+        }
+      }
+    }
+  }
+
+  private static String digestOf(Path entry) {
+    val properties = new Properties();
+    try (val input = Files.newInputStream(entry)) {
+      properties.load(input);
+    } catch (IOException | IllegalArgumentException ex) {
+      return null;
+    }
+    return properties.getProperty(DIGEST);
+  }
+
+  private static long lastModified(Path file) {
+    try {
+      return Files.getLastModifiedTime(file).toMillis();
+    } catch (IOException ex) {
+      return 0;
+    }
+  }
+
+  /** marks the entry as recently used */
+  private static void touch(Path entry) {
+    try {
+      Files.setLastModifiedTime(entry, FileTime.fromMillis(System.currentTimeMillis()));
+    } catch (IOException ex) {
+      // only affects which entries are evicted first
+    }
+  }
+
+  private static void delete(Path file) {
+    try {
+      Files.deleteIfExists(file);
+    } catch (IOException ex) {
+      // e.g. still open on Windows--tried again after the next store
+    }
+  }
+
+  private static void move(Path source, Path target) throws IOException {
+    try {
+      Files.move(source, target, StandardCopyOption.ATOMIC_MOVE);
+    } catch (AtomicMoveNotSupportedException ex) {
+      Files.move(source, target);
+    }
+  }
+
+  /**
+   * makes the stored content available at target, sharing its storage where the filesystem allows
+   *
+   * @param blob the stored content
+   * @param target the location the content is expected at
+   */
+  static void materialize(Path blob, Path target) throws IOException {
+    io.zephyr.common.io.Files.linkOrTransfer(blob.toFile(), target.toFile());
+  }
+
+  private static String hash(String value) {
+    return toHex(newDigest().digest(value.getBytes(StandardCharsets.UTF_8)));
+  }
+
+  static String toHex(byte[] bytes) {
+    val result = new StringBuilder(bytes.length * 2);
+    for (val b : bytes) {
+      result.append(Character.forDigit((b >> 4) & 0xF, 16));
+      result.append(Character.forDigit(b & 0xF, 16));
+    }
+    return result.toString();
+  }
+}
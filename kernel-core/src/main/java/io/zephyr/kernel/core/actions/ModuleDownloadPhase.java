@@ -25,13 +25,20 @@ import java.util.logging.Logger;
 import lombok.AllArgsConstructor;
 import lombok.val;
 
-/** Downloads a file from a URL into a temp directory */
+/**
+ * Downloads a file from a URL into a temp directory. Downloaded content is kept in a
+ * content-addressed cache beside that directory; reinstalling from an unchanged URL reuses it
+ * instead of transferring it again
+ */
 @SuppressWarnings("PMD.UnusedFormalParameter")
 public class ModuleDownloadPhase extends Task implements ChannelTransferListener {
 
   public static final String DOWNLOAD_URL = "MODULE_DOWNLOAD_URL";
   public static final String DOWNLOADED_FILE = "DOWNLOADED_MODULE_FILE";
   public static final String TARGET_DIRECTORY = "MODULE_TARGET_DIRECTORY";
+
+  /** the cache's directory, relative to the parent of the target directory */
+  static final String CACHE_DIRECTORY = "download-cache";
   static final Logger log = Logging.get(ModuleDownloadPhase.class);
   static final ResourceBundle bundle;
 
@@ -109,9 +116,25 @@ public class ModuleDownloadPhase extends Task implements ChannelTransferListener
 
   @SuppressWarnings("PMD.UnusedPrivateMethod")
   private void doTransfer(URL downloadUrl, File targetFile, Scope context) throws Exception {
+    val target = targetFile.toPath();
+    val cache = new DownloadCache(target.getParent().resolveSibling(CACHE_DIRECTORY));
+    // the target may share storage with a cached blob--never write through it
+    java.nio.file.Files.deleteIfExists(target);
+
     val transfer = MonitorableChannels.transfer(downloadUrl, targetFile);
-    transfer.addListener(this);
-    transfer.call();
+    val lastModified = transfer.getLastModified();
+    val length = transfer.getExpectedSize();
+    val cached = cache.restore(downloadUrl, lastModified, length, target);
+    if (cached != null) {
+      transfer.discard();
+      this.targetFile.remove();
+      log.log(Level.INFO, "module.download.cached", new Object[] {downloadUrl, cached});
+    } else {
+      val digest = DownloadCache.newDigest();
+      transfer.digest(digest).addListener(this);
+      transfer.call();
+      cache.store(downloadUrl, target, digest.digest(), lastModified, length);
+    }
     context.set(DOWNLOADED_FILE, targetFile);
   }
 
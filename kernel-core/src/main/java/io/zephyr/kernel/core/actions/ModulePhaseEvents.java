@@ -14,6 +14,11 @@ public enum ModulePhaseEvents implements EventType {
   MODULE_SCAN_COMPLETED,
   MODULE_SCAN_FAILED,
 
+  /** dispatched only when module signatures are verified */
+  MODULE_VERIFICATION_INITIATED,
+  MODULE_VERIFICATION_COMPLETED,
+  MODULE_VERIFICATION_FAILED,
+
   /** */
   MODULE_TRANSFER_INITIATED,
   MODULE_TRANSFER_COMPLETED,
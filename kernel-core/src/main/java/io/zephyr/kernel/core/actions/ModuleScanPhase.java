@@ -6,6 +6,7 @@ import io.zephyr.kernel.concurrency.Task;
 import io.zephyr.kernel.concurrency.TaskException;
 import io.zephyr.kernel.concurrency.TaskStatus;
 import io.zephyr.kernel.core.Kernel;
+import io.zephyr.kernel.core.KernelExtensionRegistry;
 import io.zephyr.kernel.core.ModuleDescriptor;
 import io.zephyr.kernel.core.ModuleScanner;
 import io.zephyr.kernel.events.KernelEvents;
@@ -24,9 +25,9 @@ import lombok.val;
 /**
  * This phase runs after ModuleDownloadPhase and
  *
- * <p>1. Loads all loaded ModuleScanners from the kernel 2. Finds a scanner that can handle the
- * current file-type 3. Applies that scanner to the file to produce a Coordinate 4. Puts that
- * coordinate into the context for further processing
+ * <p>1. Loads all loaded ModuleScanners from the kernel's extension registry 2. Finds a scanner
+ * that can handle the current file-type 3. Applies that scanner to the file to produce a Coordinate
+ * 4. Puts that coordinate into the context for further processing
  */
 @SuppressWarnings({"PMD.DataflowAnomalyAnalysis", "PMD.UseVarargs", "PMD.UnusedPrivateMethod"})
 public class ModuleScanPhase extends Task {
@@ -49,7 +50,7 @@ public class ModuleScanPhase extends Task {
     val kernel = context.<Kernel>get("SunshowerKernel");
     fireScanInitiated(downloaded, kernel);
 
-    val scanners = kernel.locateServices(ModuleScanner.class);
+    val scanners = KernelExtensionRegistry.of(kernel).get(ModuleScanner.class);
     val url = (URL) parameters().get(ModuleDownloadPhase.DOWNLOAD_URL);
 
     if (scanners.isEmpty()) {
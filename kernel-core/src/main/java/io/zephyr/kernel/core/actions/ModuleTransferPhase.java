@@ -21,7 +21,9 @@ import java.util.logging.Logger;
 import lombok.val;
 
 /**
- * This phase transfers a module file from the kernel temp directory to its final destination .
+ * This phase transfers a module file from the kernel temp directory to its final destination . The
+ * destination is a hard link to the downloaded file where possible, so the assembly is only copied
+ * when the download and the module filesystem are on different devices
  *
  * <p>This phase is also responsible for the creation of the module filesystem
  */
@@ -66,9 +68,7 @@ public class ModuleTransferPhase extends Task {
 
     log.log(Level.INFO, "transfer.file.beginning", new Object[] {file, assembly});
     try {
-      Files.transferTo(file, assembly);
-      //      java.nio.file.Files.copy(file.toPath(), assembly.toPath(),
-      // StandardCopyOption.REPLACE_EXISTING);
+      Files.linkOrTransfer(file, assembly);
       scope.set(MODULE_ASSEMBLY_FILE, assembly);
       log.log(Level.INFO, "transfer.file.complete", new Object[] {file, assembly});
       dispatchEvent(kernel, fs, ModulePhaseEvents.MODULE_TRANSFER_COMPLETED);
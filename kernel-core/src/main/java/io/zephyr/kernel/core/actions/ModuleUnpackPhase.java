@@ -7,6 +7,7 @@ import io.zephyr.kernel.concurrency.Task;
 import io.zephyr.kernel.concurrency.TaskException;
 import io.zephyr.kernel.concurrency.TaskStatus;
 import io.zephyr.kernel.core.Kernel;
+import io.zephyr.kernel.core.KernelExtensionRegistry;
 import io.zephyr.kernel.events.KernelEvents;
 import io.zephyr.kernel.extensions.ModuleAssemblyExtractor;
 import io.zephyr.kernel.log.Logging;
@@ -14,13 +15,12 @@ import io.zephyr.kernel.status.Status;
 import io.zephyr.kernel.status.StatusType;
 import java.io.File;
 import java.nio.file.FileSystem;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.ResourceBundle;
 import java.util.ServiceConfigurationError;
-import java.util.ServiceLoader;
-import java.util.ServiceLoader.Provider;
 import java.util.logging.Level;
 import java.util.logging.Logger;
-import java.util.stream.Collectors;
 import lombok.val;
 
 @SuppressWarnings("PMD.UnusedPrivateMethod")
@@ -67,10 +67,8 @@ public class ModuleUnpackPhase extends Task implements ModuleAssemblyExtractor.E
     FileSystem moduleFileSystem = context.get(ModuleTransferPhase.MODULE_FILE_SYSTEM);
 
     val extractors =
-        ServiceLoader.load(ModuleAssemblyExtractor.class, kernel.getClassLoader()).stream()
-            .map(Provider::get)
-            .sorted()
-            .collect(Collectors.toList());
+        new ArrayList<>(KernelExtensionRegistry.of(kernel).get(ModuleAssemblyExtractor.class));
+    Collections.sort(extractors);
 
     boolean success = false;
     for (val extractor : extractors) {
@@ -88,6 +86,8 @@ public class ModuleUnpackPhase extends Task implements ModuleAssemblyExtractor.E
           log.log(Level.FINE, "module.extractor.actualerror", ex);
         }
         fireExtractorFailed(extractor, ex);
+      } finally {
+        extractor.release(assembly);
       }
     }
 
@@ -0,0 +1,135 @@
+package io.zephyr.kernel.core.actions;
+
+import io.sunshower.gyre.Scope;
+import io.zephyr.kernel.concurrency.Task;
+import io.zephyr.kernel.concurrency.TaskException;
+import io.zephyr.kernel.concurrency.TaskStatus;
+import io.zephyr.kernel.core.Kernel;
+import io.zephyr.kernel.events.KernelEvents;
+import io.zephyr.kernel.log.Logging;
+import io.zephyr.kernel.status.Status;
+import io.zephyr.kernel.status.StatusType;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Locale;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.zip.ZipFile;
+import lombok.val;
+
+/**
+ * This optional phase runs after ModuleScanPhase when module signatures are to be verified. A
+ * signed module is accepted only if every entry other than its manifest and signature files is
+ * signed and matches its signature--unsigned modules are accepted as-is
+ */
+@SuppressWarnings("PMD.UnusedPrivateMethod")
+public class ModuleVerificationPhase extends Task {
+
+  static final String SIGNATURE_DIRECTORY = "META-INF/";
+  static final String SIGNATURE_SUFFIX = ".SF";
+  static final String MANIFEST = "MANIFEST.MF";
+  static final String SIGNATURE_FILE_PREFIX = "SIG-";
+  static final String[] SIGNATURE_FILE_SUFFIXES = {".SF", ".DSA", ".RSA", ".EC"};
+
+  static final Logger log = Logging.get(ModuleVerificationPhase.class);
+
+  public ModuleVerificationPhase(String name) {
+    super(name);
+  }
+
+  @Override
+  @SuppressWarnings("PMD.PreserveStackTrace")
+  public TaskValue run(Scope scope) {
+    val kernel = scope.<Kernel>get("SunshowerKernel");
+    File file = scope.get(ModuleDownloadPhase.DOWNLOADED_FILE);
+    dispatch(kernel, file, ModulePhaseEvents.MODULE_VERIFICATION_INITIATED);
+    try {
+      if (isSigned(file)) {
+        log.log(Level.INFO, "module.verify.beginning", file);
+        verify(file);
+        log.log(Level.INFO, "module.verify.complete", file);
+      } else {
+        log.log(Level.FINE, "module.verify.unsigned", file);
+      }
+      dispatch(kernel, file, ModulePhaseEvents.MODULE_VERIFICATION_COMPLETED);
+    } catch (IOException | SecurityException ex) {
+      log.log(Level.WARNING, "module.verify.failed", new Object[] {file, ex.getMessage()});
+      kernel.dispatchEvent(
+          ModulePhaseEvents.MODULE_VERIFICATION_FAILED,
+          KernelEvents.create(file, new Status(StatusType.FAILED, ex.getMessage(), false)));
+      throw new TaskException(ex, TaskStatus.UNRECOVERABLE);
+    }
+    return null;
+  }
+
+  static boolean isSigned(File file) throws IOException {
+    try (val archive = new ZipFile(file)) {
+      val entries = archive.entries();
+      while (entries.hasMoreElements()) {
+        val name = entries.nextElement().getName().toUpperCase(Locale.ROOT);
+        if (name.startsWith(SIGNATURE_DIRECTORY)
+            && name.endsWith(SIGNATURE_SUFFIX)
+            && name.indexOf('/', SIGNATURE_DIRECTORY.length()) < 0) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+
+  /**
+   * reads every entry through a verifying JarFile, which fails on content that doesn't match its
+   * signature. Code signers are only available once an entry has been read completely
+   */
+  @SuppressWarnings("PMD.AvoidInstantiatingObjectsInLoops")
+  static void verify(File file) throws IOException {
+    try (val archive = new JarFile(file, true)) {
+      val entries = archive.entries();
+      while (entries.hasMoreElements()) {
+        val entry = entries.nextElement();
+        if (entry.isDirectory()) {
+          continue;
+        }
+        try (val input = archive.getInputStream(entry)) {
+          input.transferTo(OutputStream.nullOutputStream());
+        }
+        if (!isSignatureRelated(entry) && entry.getCodeSigners() == null) {
+          throw new SecurityException("Error: entry '" + entry.getName() + "' is not signed");
+        }
+      }
+    }
+  }
+
+  /**
+   * the entries the JDK itself treats as signature-related: the manifest and the signature files
+   * directly under META-INF/. Anything else there (e.g. META-INF/services/) must be signed
+   */
+  static boolean isSignatureRelated(JarEntry entry) {
+    val name = entry.getName().toUpperCase(Locale.ROOT);
+    if (!name.startsWith(SIGNATURE_DIRECTORY)
+        || name.indexOf('/', SIGNATURE_DIRECTORY.length()) >= 0) {
+      return false;
+    }
+    val fileName = name.substring(SIGNATURE_DIRECTORY.length());
+    if (MANIFEST.equals(fileName) || fileName.startsWith(SIGNATURE_FILE_PREFIX)) {
+      return true;
+    }
+    for (val suffix : SIGNATURE_FILE_SUFFIXES) {
+      if (fileName.endsWith(suffix)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private void dispatch(Kernel kernel, File file, ModulePhaseEvents eventType) {
+    kernel.dispatchEvent(
+        eventType,
+        KernelEvents.create(
+            file,
+            StatusType.PROGRESSING.resolvable(String.format("%s : %s", file, eventType.name()))));
+  }
+}
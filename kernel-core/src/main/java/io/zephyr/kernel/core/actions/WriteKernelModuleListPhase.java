@@ -1,6 +1,5 @@
 package io.zephyr.kernel.core.actions;
 
-import io.sunshower.checks.SuppressFBWarnings;
 import io.sunshower.gyre.Scope;
 import io.zephyr.kernel.KernelModuleEntry;
 import io.zephyr.kernel.Library;
@@ -8,25 +7,34 @@ import io.zephyr.kernel.Module;
 import io.zephyr.kernel.concurrency.Task;
 import io.zephyr.kernel.core.Kernel;
 import io.zephyr.kernel.core.KernelException;
+import io.zephyr.kernel.core.lifecycle.KernelModuleListReadPhase;
 import io.zephyr.kernel.log.Logging;
 import io.zephyr.kernel.module.ModuleListParser;
-import java.io.BufferedWriter;
+import java.io.File;
 import java.io.IOException;
-import java.io.OutputStreamWriter;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
 import java.nio.file.FileSystem;
-import java.nio.file.Files;
-import java.nio.file.Path;
 import java.nio.file.StandardOpenOption;
 import java.util.*;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import lombok.val;
 
+/**
+ * appends every kernel module installed by an installation group to the module list in a single
+ * write, synced to disk once. The entries already listed are taken from the read at the start of
+ * the installation unless the list has changed since
+ */
 @SuppressWarnings("PMD.UnusedPrivateMethod")
 public class WriteKernelModuleListPhase extends Task {
 
   static final Logger log = Logging.get(WriteKernelModuleListPhase.class);
 
+  /** serializes writers so that concurrent installations don't list a module twice */
+  static final Object lock = new Object();
+
   public WriteKernelModuleListPhase(String name) {
     super(name);
   }
@@ -42,44 +50,55 @@ public class WriteKernelModuleListPhase extends Task {
 
     val kernel = scope.<Kernel>get("SunshowerKernel");
     val fs = kernel.getFileSystem();
-    Set<KernelModuleEntry> entries = readEntries(fs);
-
-    val file = fs.getPath("modules.list");
-    writeModules(file, descriptors, entries);
+    val file = fs.getPath(KernelModuleEntry.MODULE_LIST).toFile();
 
+    synchronized (lock) {
+      val entries = readEntries(scope, fs, file);
+      writeModules(file, descriptors, entries);
+    }
     return null;
   }
 
-  private Set<KernelModuleEntry> readEntries(FileSystem fs) {
-    return new LinkedHashSet<>(ModuleListParser.read(fs, "modules.list"));
+  private Set<KernelModuleEntry> readEntries(Scope scope, FileSystem fs, File file) {
+    List<KernelModuleEntry> listed = scope.get(KernelModuleListReadPhase.INSTALLED_MODULE_LIST);
+    Long length = scope.get(KernelModuleListReadPhase.INSTALLED_MODULE_LIST_LENGTH);
+    if (listed != null && length != null && length == file.length()) {
+      return new LinkedHashSet<>(listed);
+    }
+    return new LinkedHashSet<>(ModuleListParser.read(fs, KernelModuleEntry.MODULE_LIST));
   }
 
-  @SuppressFBWarnings
   @SuppressWarnings({"PMD.AvoidInstantiatingObjectsInLoops", "PMD.UnusedPrivateMethod"})
-  private void writeModules(Path file, Collection<Module> modules, Set<KernelModuleEntry> entries) {
-    try (val outputStream =
-        new BufferedWriter(
-            new OutputStreamWriter(
-                Files.newOutputStream(
-                    file,
-                    StandardOpenOption.WRITE,
-                    StandardOpenOption.DSYNC,
-                    StandardOpenOption.APPEND)))) {
-      for (val module : modules) {
-        val coord = module.getCoordinate();
-        val entry =
-            new KernelModuleEntry(
-                module.getOrder(),
-                coord.getName(),
-                coord.getGroup(),
-                coord.getVersion().toString(),
-                libraryFiles(module, module.getLibraries()));
-        if (!entries.contains(entry)) {
-          outputStream.write(entry.toString());
-          outputStream.write("\n");
-          entries.add(entry);
-        }
+  private void writeModules(File file, Collection<Module> modules, Set<KernelModuleEntry> entries) {
+    val additions = new StringBuilder();
+    for (val module : modules) {
+      val coord = module.getCoordinate();
+      val entry =
+          new KernelModuleEntry(
+              module.getOrder(),
+              coord.getName(),
+              coord.getGroup(),
+              coord.getVersion().toString(),
+              libraryFiles(module, module.getLibraries()));
+      if (entries.add(entry)) {
+        additions.append(entry).append('\n');
+      }
+    }
+    if (additions.length() == 0) {
+      return;
+    }
+
+    try (val channel =
+        FileChannel.open(
+            file.toPath(),
+            StandardOpenOption.CREATE,
+            StandardOpenOption.WRITE,
+            StandardOpenOption.APPEND)) {
+      val buffer = ByteBuffer.wrap(additions.toString().getBytes(Charset.defaultCharset()));
+      while (buffer.hasRemaining()) {
+        channel.write(buffer);
       }
+      channel.force(false);
     } catch (IOException ex) {
       throw new KernelException(ex);
     }
@@ -15,6 +15,9 @@ public class KernelModuleListReadPhase extends Task {
 
   public static final String INSTALLED_MODULE_LIST = "MODULE_LIST_INSTALLED";
 
+  /** the length of the module list when it was read--it's unchanged since if it's still this */
+  public static final String INSTALLED_MODULE_LIST_LENGTH = "MODULE_LIST_INSTALLED_LENGTH";
+
   public KernelModuleListReadPhase(String name) {
     super(name);
   }
@@ -27,8 +30,11 @@ public class KernelModuleListReadPhase extends Task {
     if (fs == null) {
       throw new TaskException(TaskStatus.UNRECOVERABLE);
     }
+    // sampled before parsing--an append in between makes the length stale rather than the entries
+    val length = fs.getPath(KernelModuleEntry.MODULE_LIST).toFile().length();
     val entries = ModuleListParser.read(fs, KernelModuleEntry.MODULE_LIST);
     scope.set(INSTALLED_MODULE_LIST, entries);
+    scope.set(INSTALLED_MODULE_LIST_LENGTH, length);
     kernel.dispatchEvent(KernelEventTypes.KERNEL_MODULE_LIST_READ, Events.create(kernel));
     return null;
   }
@@ -14,6 +14,7 @@ import io.zephyr.kernel.Dependency;
 import io.zephyr.kernel.Module;
 import io.zephyr.kernel.core.ModuleCoordinate;
 import io.zephyr.kernel.log.Logging;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
@@ -23,18 +24,20 @@ import java.util.Iterator;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.NavigableMap;
 import java.util.Objects;
 import java.util.Set;
+import java.util.TreeMap;
 import java.util.logging.Level;
 import java.util.logging.Logger;
-import java.util.stream.Collectors;
 import lombok.NonNull;
 import lombok.val;
 
 @SuppressWarnings({
   "PMD.DataflowAnomalyAnalysis",
   "PMD.AvoidInstantiatingObjectsInLoops",
-  "PMD.UnusedPrivateMethod"
+  "PMD.UnusedPrivateMethod",
+  "PMD.AvoidUsingVolatile"
 })
 public final class DefaultDependencyGraph implements DependencyGraph, Cloneable {
 
@@ -42,16 +45,34 @@ public final class DefaultDependencyGraph implements DependencyGraph, Cloneable
   final TrieMap<Coordinate, Module> modules;
   final Graph<DirectedGraph.Edge<Coordinate>, Coordinate> dependencyGraph;
 
+  /** group:name -> every installed version of that artifact, version ascending */
+  final Map<String, NavigableMap<Coordinate, Module>> versions;
+
   final Object lock = new Object();
 
+  /**
+   * what get, contains and iterator read: a persistent copy of the installed modules, republished
+   * by every mutation while it holds the lock. Publishing a new version only copies the path to the
+   * changed key, and readers never take the lock. Iteration follows the order modules were added
+   * in, so that getModules(), and everything ordered by it, is deterministic
+   */
+  private volatile PersistentMap<Coordinate, Module> published;
+
   public DefaultDependencyGraph() {
     dependencyGraph = new AbstractDirectedGraph<>();
     modules = new CompactTrieMap<>(new CoordinateAnalyzer());
+    versions = new HashMap<>();
+    published = PersistentMap.empty();
   }
 
   private DefaultDependencyGraph(DefaultDependencyGraph graph) {
     dependencyGraph = graph.dependencyGraph.clone();
     modules = new CompactTrieMap<>(new CoordinateAnalyzer(), graph.modules);
+    versions = new HashMap<>(graph.versions.size());
+    for (val entry : graph.versions.entrySet()) {
+      versions.put(entry.getKey(), new TreeMap<>(entry.getValue()));
+    }
+    published = graph.published;
   }
 
   @Override
@@ -142,7 +163,7 @@ public final class DefaultDependencyGraph implements DependencyGraph, Cloneable
         val unsatisfied = new LinkedHashSet<Coordinate>();
         for (val dependency : module.getDependencies()) {
           val depcoord = dependency.getCoordinate();
-          if (!(prospective.containsKey(depcoord))) {
+          if (!isResolvable(depcoord, prospective)) {
             unsatisfied.add(depcoord);
           }
         }
@@ -166,7 +187,7 @@ public final class DefaultDependencyGraph implements DependencyGraph, Cloneable
         val unsatisfied = new LinkedHashSet<Coordinate>();
         for (val dependency : module.getDependencies()) {
           val depcoord = dependency.getCoordinate();
-          if (!(prospective.containsKey(depcoord) || dependency.isOptional())) {
+          if (!(isResolvable(depcoord, prospective) || dependency.isOptional())) {
             unsatisfied.add(depcoord);
           }
         }
@@ -174,6 +195,10 @@ public final class DefaultDependencyGraph implements DependencyGraph, Cloneable
           results.add(new UnsatisfiedDependencySet(module.getCoordinate(), Collections.emptySet()));
           val coordinate = module.getCoordinate();
           this.modules.put(coordinate, module);
+          published = published.plus(coordinate, module);
+          versions
+              .computeIfAbsent(artifactOf(coordinate), k -> new TreeMap<>())
+              .put(coordinate, module);
           dependencyGraph.add(coordinate);
           for (val dep : module.getDependencies()) {
             dependencyGraph.connect(
@@ -193,14 +218,21 @@ public final class DefaultDependencyGraph implements DependencyGraph, Cloneable
       val coord = module.getCoordinate();
       dependencyGraph.remove(coord);
       modules.remove(coord);
+      published = published.minus(coord);
+      val artifact = artifactOf(coord);
+      val installed = versions.get(artifact);
+      if (installed != null) {
+        installed.remove(coord);
+        if (installed.isEmpty()) {
+          versions.remove(artifact);
+        }
+      }
     }
   }
 
   @Override
   public Module get(Coordinate coordinate) {
-    synchronized (lock) {
-      return modules.get(coordinate);
-    }
+    return published.get(coordinate);
   }
 
   @Override
@@ -233,9 +265,7 @@ public final class DefaultDependencyGraph implements DependencyGraph, Cloneable
 
   @Override
   public boolean contains(Coordinate coordinate) {
-    synchronized (lock) {
-      return modules.containsKey(coordinate);
-    }
+    return published.containsKey(coordinate);
   }
 
   @Override
@@ -256,9 +286,7 @@ public final class DefaultDependencyGraph implements DependencyGraph, Cloneable
 
   @Override
   public Iterator<Module> iterator() {
-    synchronized (lock) {
-      return modules.values().iterator();
-    }
+    return published.iterator();
   }
 
   @Override
@@ -266,14 +294,22 @@ public final class DefaultDependencyGraph implements DependencyGraph, Cloneable
     return new GraphWriter<DirectedGraph.Edge<Coordinate>, Coordinate>().write(dependencyGraph);
   }
 
+  /**
+   * @param modules the modules being installed
+   * @return only the installation group, keyed by coordinate. Lookups consult it alongside the
+   *     installed modules (see isResolvable) rather than a merged copy of both, so the cost of
+   *     resolution is proportional to the size of the group instead of the installed base
+   */
   private Map<Coordinate, Module> resolveInstallationGroupModules(Collection<Module> modules) {
-    synchronized (lock) {
-      val prospective = new HashMap<>(this.modules);
-      for (val module : modules) {
-        prospective.put(module.getCoordinate(), module);
-      }
-      return prospective;
+    val group = new HashMap<Coordinate, Module>(Math.max(16, modules.size() * 2));
+    for (val module : modules) {
+      group.put(module.getCoordinate(), module);
     }
+    return group;
+  }
+
+  private boolean isResolvable(Coordinate coordinate, Map<Coordinate, Module> installationGroup) {
+    return installationGroup.containsKey(coordinate) || this.modules.containsKey(coordinate);
   }
 
   private void resolveDependenciesFor(
@@ -325,33 +361,47 @@ public final class DefaultDependencyGraph implements DependencyGraph, Cloneable
   /**
    * process:
    *
-   * <p>1. Search through existing modules. Add to list 2. Search through installation group
-   * modules, add to list 3. If not empty, sort coordinate ascending 4. Pick first as resolution 5.
-   * If empty, add unresolved dependency to dependency set
+   * <p>1. Search through the installed versions of the artifact (kept sorted by group:name, and
+   * each range is only parsed once). Add to list 2. Search through installation group modules, add
+   * to list 3. If not empty, the caller sorts the list by coordinate ascending 4. and picks the
+   * last (highest) match as the resolution 5. If empty, add unresolved dependency to dependency set
    *
    * @param dependency the dependency to resolve
    * @param installationGroupModules the current installation group
-   * @return a list of matching dependencies ordered version ascending
+   * @return the matching modules, installed versions first (unsorted)
    */
   private List<Module> collectMatchingFrom(
       Dependency dependency, Map<Coordinate, Module> installationGroupModules) {
     synchronized (lock) {
       val spec = dependency.getCoordinateSpecification();
-      val query = ModuleCoordinate.group(spec.getGroup()).name(spec.getName());
-      val existing =
-          getModules(query).stream()
-              .filter(f -> f.getCoordinate().satisfies(spec.getVersionSpecification()))
-              .collect(Collectors.toList());
+      val range = spec.getVersionSpecification();
+      val existing = new ArrayList<Module>();
+      val installed = versions.get(artifactOf(spec.getGroup(), spec.getName()));
+      if (installed != null) {
+        for (val entry : installed.entrySet()) {
+          if (entry.getKey().satisfies(range)) {
+            existing.add(entry.getValue());
+          }
+        }
+      }
 
       for (val module : installationGroupModules.values()) {
         val coordinate = module.getCoordinate();
         if (Objects.equals(coordinate.getGroup(), spec.getGroup())
             && Objects.equals(coordinate.getName(), spec.getName())
-            && coordinate.satisfies(spec.getVersionSpecification())) {
+            && coordinate.satisfies(range)) {
           existing.add(module);
         }
       }
       return existing;
     }
   }
+
+  private static String artifactOf(Coordinate coordinate) {
+    return artifactOf(coordinate.getGroup(), coordinate.getName());
+  }
+
+  private static String artifactOf(String group, String name) {
+    return group + ":" + name;
+  }
 }
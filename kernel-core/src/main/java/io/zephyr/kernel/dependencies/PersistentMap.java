@@ -0,0 +1,342 @@
+package io.zephyr.kernel.dependencies;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import lombok.val;
+
+/**
+ * an immutable hash map (a hash array mapped trie). Adding or removing a key copies only the path
+ * to it--at most seven small nodes--and shares everything else with the map it was derived from, so
+ * a writer can publish a new version after every change without copying the whole map. Keys and
+ * values must not be null
+ *
+ * <p>Values are iterated in the order their keys were added, like a LinkedHashMap: replacing the
+ * value of a key keeps its place, while removing and re-adding it moves it to the end
+ *
+ * @param <K> the type of the keys
+ * @param <V> the type of the values
+ */
+@SuppressWarnings({
+  "unchecked",
+  "PMD.AvoidUsingVolatile",
+  "PMD.DataflowAnomalyAnalysis",
+  "PMD.AvoidReassigningParameters"
+})
+final class PersistentMap<K, V> implements Iterable<V> {
+
+  static final int BITS = 5;
+  static final int MASK = (1 << BITS) - 1;
+
+  private static final PersistentMap<?, ?> EMPTY = new PersistentMap<>(null, 0, 0);
+
+  private final Node root;
+  private final int size;
+
+  /** the position the next new key is given in the iteration order */
+  private final long next;
+
+  /** the values, computed on the first iteration of this version */
+  private volatile List<V> values;
+
+  private PersistentMap(Node root, int size, long next) {
+    this.root = root;
+    this.size = size;
+    this.next = next;
+  }
+
+  static <K, V> PersistentMap<K, V> empty() {
+    return (PersistentMap<K, V>) EMPTY;
+  }
+
+  int size() {
+    return size;
+  }
+
+  V get(Object key) {
+    val entry = find(key);
+    return entry == null ? null : (V) entry.value;
+  }
+
+  private Ordered find(Object key) {
+    if (root == null) {
+      return null;
+    }
+    return (Ordered) root.find(0, key.hashCode(), key);
+  }
+
+  boolean containsKey(Object key) {
+    return get(key) != null;
+  }
+
+  /** @return a map with key mapped to value, or this map if it already is */
+  PersistentMap<K, V> plus(K key, V value) {
+    val existing = find(key);
+    if (existing != null && existing.value == value) {
+      return this;
+    }
+    val order = existing == null ? next : existing.order;
+    val added = new boolean[1];
+    val current = root == null ? BitmapNode.EMPTY : root;
+    val result = current.assoc(0, key.hashCode(), key, new Ordered(value, order), added);
+    return new PersistentMap<>(result, added[0] ? size + 1 : size, added[0] ? next + 1 : next);
+  }
+
+  /** @return a map without key, or this map if it doesn't contain it */
+  PersistentMap<K, V> minus(Object key) {
+    if (root == null) {
+      return this;
+    }
+    val result = root.without(0, key.hashCode(), key);
+    if (result == root) {
+      return this;
+    }
+    return new PersistentMap<>(result, size - 1, next);
+  }
+
+  /**
+   * @return the values of this version, in the order their keys were added. Later versions never
+   *     affect the result
+   */
+  List<V> values() {
+    var result = values;
+    if (result == null) {
+      val collected = new ArrayList<Object>(size);
+      if (root != null) {
+        root.collect(collected);
+      }
+      collected.sort(Comparator.comparingLong(entry -> ((Ordered) entry).order));
+      for (int i = 0; i < collected.size(); i++) {
+        collected.set(i, ((Ordered) collected.get(i)).value);
+      }
+      result = Collections.unmodifiableList((List<V>) collected);
+      values = result;
+    }
+    return result;
+  }
+
+  @Override
+  public Iterator<V> iterator() {
+    return values().iterator();
+  }
+
+  static int bit(int hash, int shift) {
+    return 1 << ((hash >>> shift) & MASK);
+  }
+
+  static Node pair(int shift, Object key1, Object value1, int hash2, Object key2, Object value2) {
+    val hash1 = key1.hashCode();
+    if (hash1 == hash2) {
+      return new CollisionNode(hash1, new Object[] {key1, value1, key2, value2});
+    }
+    val ignored = new boolean[1];
+    return BitmapNode.EMPTY
+        .assoc(shift, hash1, key1, value1, ignored)
+        .assoc(shift, hash2, key2, value2, ignored);
+  }
+
+  /** a value and the position of its key in the iteration order */
+  static final class Ordered {
+    final Object value;
+    final long order;
+
+    Ordered(Object value, long order) {
+      this.value = value;
+      this.order = order;
+    }
+  }
+
+  interface Node {
+    Object find(int shift, int hash, Object key);
+
+    Node assoc(int shift, int hash, Object key, Object value, boolean[] added);
+
+    /** @return the node without key, this node if it doesn't contain it, or null if it's empty */
+    Node without(int shift, int hash, Object key);
+
+    void collect(List<Object> values);
+  }
+
+  /**
+   * up to 32 slots, present where the bitmap is set. Each slot is a key and its value, or (when the
+   * key is null) a child node for every key whose hash agrees with the slot's up to this level
+   */
+  static final class BitmapNode implements Node {
+
+    static final BitmapNode EMPTY = new BitmapNode(0, new Object[0]);
+
+    final int bitmap;
+    final Object[] array;
+
+    BitmapNode(int bitmap, Object[] array) {
+      this.bitmap = bitmap;
+      this.array = array;
+    }
+
+    private int index(int bit) {
+      return Integer.bitCount(bitmap & (bit - 1));
+    }
+
+    @Override
+    public Object find(int shift, int hash, Object key) {
+      val bit = bit(hash, shift);
+      if ((bitmap & bit) == 0) {
+        return null;
+      }
+      val index = index(bit);
+      val slotKey = array[2 * index];
+      val slotValue = array[2 * index + 1];
+      if (slotKey == null) {
+        return ((Node) slotValue).find(shift + BITS, hash, key);
+      }
+      return key.equals(slotKey) ? slotValue : null;
+    }
+
+    @Override
+    public Node assoc(int shift, int hash, Object key, Object value, boolean[] added) {
+      val bit = bit(hash, shift);
+      val index = index(bit);
+      if ((bitmap & bit) == 0) {
+        added[0] = true;
+        val result = new Object[array.length + 2];
+        System.arraycopy(array, 0, result, 0, 2 * index);
+        result[2 * index] = key;
+        result[2 * index + 1] = value;
+        System.arraycopy(array, 2 * index, result, 2 * index + 2, array.length - 2 * index);
+        return new BitmapNode(bitmap | bit, result);
+      }
+
+      val slotKey = array[2 * index];
+      val slotValue = array[2 * index + 1];
+      if (slotKey == null) {
+        val child = ((Node) slotValue).assoc(shift + BITS, hash, key, value, added);
+        return child == slotValue ? this : replace(index, null, child);
+      }
+      if (key.equals(slotKey)) {
+        return slotValue == value ? this : replace(index, slotKey, value);
+      }
+      added[0] = true;
+      return replace(index, null, pair(shift + BITS, slotKey, slotValue, hash, key, value));
+    }
+
+    @Override
+    public Node without(int shift, int hash, Object key) {
+      val bit = bit(hash, shift);
+      if ((bitmap & bit) == 0) {
+        return this;
+      }
+      val index = index(bit);
+      val slotKey = array[2 * index];
+      val slotValue = array[2 * index + 1];
+      if (slotKey == null) {
+        val child = ((Node) slotValue).without(shift + BITS, hash, key);
+        if (child == slotValue) {
+          return this;
+        }
+        if (child != null) {
+          return replace(index, null, child);
+        }
+      } else if (!key.equals(slotKey)) {
+        return this;
+      }
+      if (bitmap == bit) {
+        return null;
+      }
+      val result = new Object[array.length - 2];
+      System.arraycopy(array, 0, result, 0, 2 * index);
+      System.arraycopy(array, 2 * index + 2, result, 2 * index, result.length - 2 * index);
+      return new BitmapNode(bitmap ^ bit, result);
+    }
+
+    private BitmapNode replace(int index, Object key, Object value) {
+      val result = array.clone();
+      result[2 * index] = key;
+      result[2 * index + 1] = value;
+      return new BitmapNode(bitmap, result);
+    }
+
+    @Override
+    public void collect(List<Object> values) {
+      for (int i = 0; i < array.length; i += 2) {
+        if (array[i] == null) {
+          ((Node) array[i + 1]).collect(values);
+        } else {
+          values.add(array[i + 1]);
+        }
+      }
+    }
+  }
+
+  /** keys whose hashes are identical */
+  static final class CollisionNode implements Node {
+    final int hash;
+    final Object[] array;
+
+    CollisionNode(int hash, Object[] array) {
+      this.hash = hash;
+      this.array = array;
+    }
+
+    private int indexOf(Object key) {
+      for (int i = 0; i < array.length; i += 2) {
+        if (key.equals(array[i])) {
+          return i;
+        }
+      }
+      return -1;
+    }
+
+    @Override
+    public Object find(int shift, int hash, Object key) {
+      val index = indexOf(key);
+      return index < 0 ? null : array[index + 1];
+    }
+
+    @Override
+    public Node assoc(int shift, int hash, Object key, Object value, boolean[] added) {
+      if (hash != this.hash) {
+        return new BitmapNode(bit(this.hash, shift), new Object[] {null, this})
+            .assoc(shift, hash, key, value, added);
+      }
+      val index = indexOf(key);
+      if (index >= 0) {
+        if (array[index + 1] == value) {
+          return this;
+        }
+        val result = array.clone();
+        result[index + 1] = value;
+        return new CollisionNode(hash, result);
+      }
+      added[0] = true;
+      val result = new Object[array.length + 2];
+      System.arraycopy(array, 0, result, 0, array.length);
+      result[array.length] = key;
+      result[array.length + 1] = value;
+      return new CollisionNode(hash, result);
+    }
+
+    @Override
+    public Node without(int shift, int hash, Object key) {
+      val index = indexOf(key);
+      if (index < 0) {
+        return this;
+      }
+      if (array.length == 2) {
+        return null;
+      }
+      val result = new Object[array.length - 2];
+      System.arraycopy(array, 0, result, 0, index);
+      System.arraycopy(array, index + 2, result, index, result.length - index);
+      return new CollisionNode(hash, result);
+    }
+
+    @Override
+    public void collect(List<Object> values) {
+      for (int i = 1; i < array.length; i += 2) {
+        values.add(array[i]);
+      }
+    }
+  }
+}
@@ -53,6 +53,39 @@ public class KernelOptions extends AbstractValidatable<KernelOptions>
       defaultValue = "2",
       type = Integer.class)
   private Integer kernelConcurrency = 10;
+  /**
+   * Run each plugin's task loop on a virtual thread instead of a dedicated platform thread. Has no
+   * effect on runtimes without virtual threads
+   */
+  @Getter
+  @Setter
+  @CommandLine.Option(
+      names = {"--virtual-module-threads"},
+      defaultValue = "false")
+  private boolean virtualModuleThreads;
+
+  /**
+   * Record the classes each plugin loads on its first start (in the plugin's directory) and
+   * pre-define them on later starts while the plugin's content is unchanged
+   */
+  @Getter
+  @Setter
+  @CommandLine.Option(
+      names = {"--module-class-lists"},
+      defaultValue = "false")
+  private boolean moduleClassLists;
+
+  /**
+   * Verify the signatures of signed modules while installing them, failing the installation of any
+   * module whose content doesn't match its signatures
+   */
+  @Getter
+  @Setter
+  @CommandLine.Option(
+      names = {"--verify-module-signatures"},
+      defaultValue = "false")
+  private boolean verifyModuleSignatures;
+
   /** Specify logging level. Defaults to Level.WARNING */
   @Getter
   @Setter
@@ -7,8 +7,14 @@ import io.zephyr.kernel.Coordinate;
 import io.zephyr.kernel.Module;
 import io.zephyr.kernel.core.Kernel;
 import io.zephyr.kernel.log.Logging;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Logger;
 import lombok.NonNull;
 import lombok.ToString;
@@ -18,14 +24,31 @@ import lombok.val;
 public class KernelServiceRegistry implements ServiceRegistry {
 
   static final Logger log = Logging.get(ServiceRegistry.class);
+
+  /** the types a lookup consults: a registration of type S provides T if S is a supertype of T */
+  static final ClassValue<List<Class<?>>> supertypes =
+      new ClassValue<>() {
+        @Override
+        protected List<Class<?>> computeValue(Class<?> type) {
+          return collectSupertypes(type);
+        }
+      };
+
   /** private state */
   private Kernel kernel;
 
   /** immutable state */
   final Map<Coordinate, ModuleServiceRegistry> registries;
 
+  /**
+   * service type -> immutable snapshot of every registration of exactly that type. Written under
+   * the registries lock, read without locking
+   */
+  final Map<Class<?>, List<ServiceRegistration<?>>> index;
+
   public KernelServiceRegistry() {
     this.registries = new HashMap<>(0);
+    this.index = new ConcurrentHashMap<>();
   }
 
   @Override
@@ -54,6 +77,7 @@ public class KernelServiceRegistry implements ServiceRegistry {
       val reference = new DefaultServiceReference<T>(module, definition);
       val registration = new DefaultServiceRegistration<T>(reference, registry, definition);
       registry.register(registration);
+      index(registration);
       module
           .getTaskQueue()
           .schedule(
@@ -67,6 +91,25 @@ public class KernelServiceRegistry implements ServiceRegistry {
     definition.dispose();
   }
 
+  @Override
+  @SuppressWarnings("unchecked")
+  public <T> List<ServiceRegistration<T>> getRegistrations(Class<T> type) {
+    List<ServiceRegistration<T>> result = null;
+    for (val supertype : supertypes.get(type)) {
+      val registrations = index.get(supertype);
+      if (registrations == null) {
+        continue;
+      }
+      if (result == null) {
+        result = new ArrayList<>(registrations.size());
+      }
+      for (val registration : registrations) {
+        result.add((ServiceRegistration<T>) registration);
+      }
+    }
+    return result == null ? Collections.emptyList() : result;
+  }
+
   @Override
   public ServiceRegistrationSet getRegistrations(Module module) {
     synchronized (registries) {
@@ -89,6 +132,7 @@ public class KernelServiceRegistry implements ServiceRegistry {
       if (moduleRegistry.registrations.isEmpty()) {
         registries.remove(coordinate);
       }
+      unindex(registration);
       //      new ServiceEventDispatchTask(ServiceEvents.UNREGISTERED,
       // registration.getReference()).run();
       module
@@ -99,6 +143,67 @@ public class KernelServiceRegistry implements ServiceRegistry {
     }
   }
 
+  private void index(ServiceRegistration<?> registration) {
+    val type = typeOf(registration);
+    if (type == null) {
+      return;
+    }
+    index.compute(
+        type,
+        (k, existing) -> {
+          val next = new ArrayList<ServiceRegistration<?>>();
+          if (existing != null) {
+            next.addAll(existing);
+          }
+          next.add(registration);
+          return Collections.unmodifiableList(next);
+        });
+  }
+
+  @SuppressWarnings("PMD.CompareObjectsWithEquals")
+  private void unindex(ServiceRegistration<?> registration) {
+    val type = typeOf(registration);
+    if (type == null) {
+      return;
+    }
+    index.computeIfPresent(
+        type,
+        (k, existing) -> {
+          val next = new ArrayList<ServiceRegistration<?>>(existing.size());
+          for (val candidate : existing) {
+            if (candidate != registration) {
+              next.add(candidate);
+            }
+          }
+          return next.isEmpty() ? null : Collections.unmodifiableList(next);
+        });
+  }
+
+  private static Class<?> typeOf(ServiceRegistration<?> registration) {
+    val reference = registration.getReference();
+    if (reference == null || reference.getDefinition() == null) {
+      return null;
+    }
+    return reference.getDefinition().getType();
+  }
+
+  private static List<Class<?>> collectSupertypes(Class<?> type) {
+    val result = new LinkedHashSet<Class<?>>();
+    val queue = new ArrayDeque<Class<?>>();
+    queue.add(type);
+    while (!queue.isEmpty()) {
+      val next = queue.poll();
+      if (result.add(next)) {
+        val superclass = next.getSuperclass();
+        if (superclass != null) {
+          queue.add(superclass);
+        }
+        Collections.addAll(queue, next.getInterfaces());
+      }
+    }
+    return List.copyOf(result);
+  }
+
   @ToString
   final class ServiceEventDispatchTask implements Runnable {
 
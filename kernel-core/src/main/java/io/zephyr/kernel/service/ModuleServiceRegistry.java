@@ -5,37 +5,53 @@ import io.zephyr.api.ServiceRegistrationSet;
 import io.zephyr.kernel.Module;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import lombok.val;
 
+/**
+ * the registrations of a single module. Each register/unregister publishes a new immutable
+ * snapshot, so readers never lock and may iterate while registrations change
+ */
+@SuppressWarnings("PMD.AvoidUsingVolatile")
 final class ModuleServiceRegistry implements ServiceRegistrationSet {
   final Module module;
   final KernelServiceRegistry registry;
-  final List<ServiceRegistration<?>> registrations;
+  volatile List<ServiceRegistration<?>> registrations;
 
   public ModuleServiceRegistry(Module module, KernelServiceRegistry registry) {
     this.module = module;
     this.registry = registry;
-    this.registrations = new ArrayList<>(0);
+    this.registrations = Collections.emptyList();
   }
 
   public <T> void register(ServiceRegistration<T> registration) {
-    synchronized (registrations) {
-      registrations.add(registration);
+    synchronized (this) {
+      val next = new ArrayList<ServiceRegistration<?>>(registrations.size() + 1);
+      next.addAll(registrations);
+      next.add(registration);
+      registrations = Collections.unmodifiableList(next);
     }
   }
 
   @SuppressWarnings("PMD.CompareObjectsWithEquals")
   public <T> void unregister(ServiceRegistration<T> registration) {
-    synchronized (registrations) {
-      val iter = registrations.iterator();
-      while (iter.hasNext()) {
-        val next = iter.next();
-        if (next == registration) {
-          iter.remove();
-          registry.notifyServiceUnregistered(next);
+    ServiceRegistration<?> removed = null;
+    synchronized (this) {
+      val next = new ArrayList<ServiceRegistration<?>>(registrations.size());
+      for (val existing : registrations) {
+        if (existing == registration) {
+          removed = existing;
+        } else {
+          next.add(existing);
         }
       }
+      if (removed != null) {
+        registrations = Collections.unmodifiableList(next);
+      }
+    }
+    if (removed != null) {
+      registry.notifyServiceUnregistered(removed);
     }
   }
 
@@ -0,0 +1,25 @@
+package io.zephyr.common.io;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import lombok.val;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class FilesTest {
+
+  @TempDir Path directory;
+
+  @Test
+  void ensureLinkOrTransferReplacesTargetWithoutModifyingSource() throws IOException {
+    val from = java.nio.file.Files.write(directory.resolve("from"), new byte[] {1, 2, 3});
+    val to = java.nio.file.Files.write(directory.resolve("to"), new byte[] {4, 5, 6, 7});
+    Files.linkOrTransfer(from.toFile(), to.toFile());
+    assertArrayEquals(new byte[] {1, 2, 3}, java.nio.file.Files.readAllBytes(to));
+
+    Files.linkOrTransfer(to.toFile(), directory.resolve("other").toFile());
+    assertArrayEquals(new byte[] {1, 2, 3}, java.nio.file.Files.readAllBytes(from));
+  }
+}
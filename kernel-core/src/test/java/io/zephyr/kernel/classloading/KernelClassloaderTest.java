@@ -0,0 +1,70 @@
+package io.zephyr.kernel.classloading;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.io.IOException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import lombok.val;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+@SuppressWarnings("PMD.JUnitTestContainsTooManyAsserts")
+class KernelClassloaderTest {
+
+  @TempDir Path directory;
+
+  @Test
+  void ensureDropletResourcesAreResolvedFromTheFirstDropletContainingThem() throws IOException {
+    val first = droplet("first.droplet", "first");
+    val second = droplet("second.droplet", "second");
+    try (val loader =
+        new KernelClassloader(new URL[] {first, second}, null, Collections.emptyList())) {
+      val resource = loader.findResource("test.txt");
+      assertNotNull(resource, "droplet resource must be found");
+      try (val input = resource.openStream()) {
+        assertEquals("first", new String(input.readAllBytes(), StandardCharsets.UTF_8));
+      }
+      assertNull(loader.findResource("missing.txt"), "missing resource must not be found");
+    }
+  }
+
+  @Test
+  void ensureDropletsThatCannotBeIndexedAreStillSearchedInOrder() throws IOException {
+    // a file URL with an authority opens through jar: but can't be indexed as a local file
+    val first = new URL("file://localhost" + droplet("first.droplet", "first").getPath());
+    val second = droplet("second.droplet", "second");
+    try (val loader =
+        new KernelClassloader(new URL[] {second, first}, null, Collections.emptyList())) {
+      try (val input = loader.findResource("test.txt").openStream()) {
+        assertEquals("second", new String(input.readAllBytes(), StandardCharsets.UTF_8));
+      }
+    }
+    try (val loader =
+        new KernelClassloader(new URL[] {first, second}, null, Collections.emptyList())) {
+      val resource = loader.findResource("test.txt");
+      assertNotNull(resource, "unindexed droplet resource must be found");
+      try (val input = resource.openStream()) {
+        assertEquals("first", new String(input.readAllBytes(), StandardCharsets.UTF_8));
+      }
+      assertNull(loader.findResource("missing.txt"), "missing resource must not be found");
+    }
+  }
+
+  private URL droplet(String name, String content) throws IOException {
+    val file = directory.resolve(name);
+    try (val output = new JarOutputStream(Files.newOutputStream(file))) {
+      output.putNextEntry(new JarEntry(KernelClassloader.DROPLET_CLASSES + "test.txt"));
+      output.write(content.getBytes(StandardCharsets.UTF_8));
+      output.closeEntry();
+    }
+    return file.toUri().toURL();
+  }
+}
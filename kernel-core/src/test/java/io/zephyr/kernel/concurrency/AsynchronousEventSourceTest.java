@@ -5,8 +5,11 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 import io.sunshower.lang.events.EventListener;
 import io.sunshower.lang.events.Events;
 import io.zephyr.kernel.core.KernelEventTypes;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import lombok.val;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -55,4 +58,64 @@ class AsynchronousEventSourceTest {
       eventSource.stop();
     }
   }
+
+  @Test
+  void ensureEveryStripeReceivesEveryEventUnderBackPressure() throws InterruptedException {
+    val listeners = 4;
+    val events = 100;
+    val source = new AsynchronousEventSource(executorService, 2, 4);
+    val received = new CountDownLatch(listeners * events);
+    try {
+      source.start();
+      source.initialize();
+      for (int i = 0; i < listeners; i++) {
+        EventListener<KernelEventTypes> listener = (type, event) -> received.countDown();
+        source.addEventListener(listener, KernelEventTypes.KERNEL_START_FAILED);
+      }
+      for (int i = 0; i < events; i++) {
+        source.dispatchEvent(KernelEventTypes.KERNEL_START_FAILED, Events.create(null));
+      }
+      assertTrue(received.await(10, TimeUnit.SECONDS), "every listener must receive every event");
+    } finally {
+      source.stop();
+    }
+  }
+
+  @Test
+  void ensureARestartedSourceDeliversEvents() throws InterruptedException {
+    val source = new AsynchronousEventSource(executorService, 2, 4);
+    val received = new CountDownLatch(1);
+    EventListener<KernelEventTypes> listener = (type, event) -> received.countDown();
+    source.addEventListener(listener, KernelEventTypes.KERNEL_START_FAILED);
+    try {
+      source.start();
+      source.stop();
+      source.start();
+      source.dispatchEvent(KernelEventTypes.KERNEL_START_FAILED, Events.create(null));
+      assertTrue(received.await(10, TimeUnit.SECONDS), "a restarted source must deliver events");
+    } finally {
+      source.stop();
+    }
+  }
+
+  @Test
+  void ensureDispatchToAFullStripeReturnsOnceStopped() throws InterruptedException {
+    val source = new AsynchronousEventSource(executorService, 1, 1);
+    EventListener<KernelEventTypes> listener = (type, event) -> {};
+    source.addEventListener(listener, KernelEventTypes.KERNEL_START_FAILED);
+    // never started, so nothing drains the queue
+    source.dispatchEvent(KernelEventTypes.KERNEL_START_FAILED, Events.create(null));
+
+    val returned = new CountDownLatch(1);
+    val producer =
+        new Thread(
+            () -> {
+              source.dispatchEvent(KernelEventTypes.KERNEL_START_FAILED, Events.create(null));
+              returned.countDown();
+            });
+    producer.start();
+    source.stop();
+    assertTrue(returned.await(10, TimeUnit.SECONDS), "blocked dispatch must return after stop");
+    source.dispatchEvent(KernelEventTypes.KERNEL_START_FAILED, Events.create(null));
+  }
 }
@@ -0,0 +1,40 @@
+package io.zephyr.kernel.concurrency;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import lombok.val;
+import org.junit.jupiter.api.Test;
+
+class BlockingTest {
+
+  @Test
+  void ensureBlockingOnTheOnlyWorkerDoesNotStallThePool() throws Exception {
+    val pool = new ForkJoinPool(1);
+    try {
+      val latch = new CountDownLatch(1);
+      val waiter =
+          pool.submit(
+              () -> {
+                Blocking.await(latch);
+                return Blocking.join(CompletableFuture.supplyAsync(() -> 42, pool));
+              });
+      pool.submit(latch::countDown);
+      assertEquals(42, waiter.get(10, TimeUnit.SECONDS), "blocked worker must be compensated");
+    } finally {
+      pool.shutdownNow();
+    }
+  }
+
+  @Test
+  void ensureJoinRethrowsFailures() {
+    val failed = CompletableFuture.failedFuture(new IllegalStateException("nope"));
+    val ex = assertThrows(CompletionException.class, () -> Blocking.join(failed));
+    assertEquals(IllegalStateException.class, ex.getCause().getClass(), "must keep the cause");
+  }
+}
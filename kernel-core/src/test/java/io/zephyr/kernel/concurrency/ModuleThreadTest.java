@@ -0,0 +1,157 @@
+package io.zephyr.kernel.concurrency;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+import io.zephyr.kernel.Lifecycle;
+import io.zephyr.kernel.Lifecycle.State;
+import io.zephyr.kernel.Module;
+import io.zephyr.kernel.core.Kernel;
+import io.zephyr.kernel.core.ModuleCoordinate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+import lombok.val;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+@SuppressWarnings({"PMD.JUnitTestContainsTooManyAsserts", "PMD.DoNotUseThreads"})
+class ModuleThreadTest {
+
+  static final int PRODUCERS = 4;
+  static final int TASKS_PER_PRODUCER = 1000;
+
+  private AtomicReference<State> state;
+  private Module module;
+  private Kernel kernel;
+  private ModuleThread thread;
+
+  @BeforeEach
+  void setUp() {
+    // already active, so that starting doesn't try to activate the (mock) module
+    state = new AtomicReference<>(State.Active);
+    val lifecycle = mock(Lifecycle.class);
+    given(lifecycle.getState()).willAnswer(invocation -> state.get());
+    module = mock(Module.class);
+    given(module.getType()).willReturn(Module.Type.Plugin);
+    given(module.getLifecycle()).willReturn(lifecycle);
+    given(module.getCoordinate()).willReturn(ModuleCoordinate.create("test", "module", "1.0.0"));
+    kernel = mock(Kernel.class);
+    thread = new ModuleThread(module, kernel);
+  }
+
+  @AfterEach
+  void tearDown() {
+    // resolved, so that stopping doesn't try to deactivate the (mock) module
+    state.set(State.Resolved);
+    thread.stop();
+  }
+
+  @Test
+  void ensureScheduledRunnablesComplete() throws Exception {
+    thread.start();
+    val ran = new AtomicReference<Thread>();
+    thread.schedule(() -> ran.set(Thread.currentThread())).toCompletableFuture().get(5, SECONDS);
+    assertSame(thread.moduleThread.get(), ran.get(), "task must run on the module thread");
+  }
+
+  @Test
+  void ensureTasksFromConcurrentProducersAllRunInProducerOrder() throws Exception {
+    thread.start();
+    val ran = new ArrayList<List<Integer>>();
+    for (int i = 0; i < PRODUCERS; i++) {
+      ran.add(new ArrayList<>());
+    }
+    val running = new AtomicInteger();
+    val overlapped = new AtomicInteger();
+    val go = new CountDownLatch(1);
+    val futures = new ArrayList<CompletableFuture<Void>>();
+    val producers = new ArrayList<Thread>();
+    for (int i = 0; i < PRODUCERS; i++) {
+      val producer = i;
+      producers.add(
+          new Thread(
+              () -> {
+                await(go);
+                for (int j = 0; j < TASKS_PER_PRODUCER; j++) {
+                  val task = j;
+                  val future =
+                      thread.schedule(
+                          () -> {
+                            if (running.incrementAndGet() > 1) {
+                              overlapped.incrementAndGet();
+                            }
+                            ran.get(producer).add(task);
+                            running.decrementAndGet();
+                          });
+                  synchronized (futures) {
+                    futures.add(future.toCompletableFuture());
+                  }
+                }
+              }));
+    }
+    for (val producer : producers) {
+      producer.start();
+    }
+    go.countDown();
+    for (val producer : producers) {
+      producer.join(SECONDS.toMillis(10));
+    }
+
+    synchronized (futures) {
+      CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).get(10, SECONDS);
+      assertEquals(PRODUCERS * TASKS_PER_PRODUCER, futures.size(), "every task must be scheduled");
+    }
+    assertEquals(0, overlapped.get(), "tasks must never run concurrently");
+    for (val tasks : ran) {
+      assertEquals(TASKS_PER_PRODUCER, tasks.size(), "every task must run");
+      for (int j = 0; j < TASKS_PER_PRODUCER; j++) {
+        assertEquals(j, tasks.get(j), "each producer's tasks must run in order");
+      }
+    }
+  }
+
+  @Test
+  void ensureAParkedModuleThreadIsWokenByASchedule() throws Exception {
+    thread.start();
+    val moduleThread = thread.moduleThread.get();
+    val deadline = System.nanoTime() + SECONDS.toNanos(5);
+    while (LockSupport.getBlocker(moduleThread) != thread) {
+      assertTrue(System.nanoTime() < deadline, "idle module thread must park");
+      Thread.onSpinWait();
+    }
+    val result = thread.schedule(() -> "woken").toCompletableFuture().get(5, SECONDS);
+    assertEquals("woken", result, "parked thread must run the scheduled task");
+  }
+
+  @Test
+  void ensureVirtualModuleThreadsRunTasksOrFallBackToPlatformThreads() throws Exception {
+    thread = new ModuleThread(module, kernel, true);
+    thread.start();
+    val ran = thread.schedule(Thread::currentThread).toCompletableFuture().get(5, SECONDS);
+    assertSame(thread.moduleThread.get(), ran, "task must run on the module thread");
+    if (VirtualThreads.isSupported()) {
+      assertTrue(
+          (Boolean) Thread.class.getMethod("isVirtual").invoke(ran), "thread must be virtual");
+    } else {
+      assertEquals(Thread.class, ran.getClass(), "must fall back to a platform thread");
+    }
+  }
+
+  private static void await(CountDownLatch latch) {
+    try {
+      latch.await(5, SECONDS);
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
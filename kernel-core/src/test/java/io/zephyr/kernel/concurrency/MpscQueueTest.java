@@ -0,0 +1,79 @@
+package io.zephyr.kernel.concurrency;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import lombok.val;
+import org.junit.jupiter.api.Test;
+
+@SuppressWarnings({"PMD.JUnitTestContainsTooManyAsserts", "PMD.DoNotUseThreads"})
+class MpscQueueTest {
+
+  @Test
+  void ensureEmptyQueuePollsNull() {
+    val queue = new MpscQueue<String>();
+    assertTrue(queue.isEmpty(), "new queue must be empty");
+    assertNull(queue.poll(), "empty queue must poll null");
+  }
+
+  @Test
+  void ensureElementsArePolledInOrder() {
+    val queue = new MpscQueue<Integer>();
+    for (int i = 0; i < 10; i++) {
+      queue.offer(i);
+    }
+    assertEquals(10, queue.size(), "size must be correct");
+    for (int i = 0; i < 10; i++) {
+      assertEquals(i, queue.poll(), "elements must be FIFO");
+    }
+    assertTrue(queue.isEmpty(), "queue must be empty");
+  }
+
+  @Test
+  void ensureDrainRespectsLimit() {
+    val queue = new MpscQueue<Integer>();
+    for (int i = 0; i < 10; i++) {
+      queue.offer(i);
+    }
+    val results = new ArrayList<Integer>();
+    assertEquals(4, queue.drain(results::add, 4), "must drain at most the limit");
+    assertEquals(6, queue.size(), "remaining elements must be retained");
+    assertEquals(6, queue.drain(results::add, 100), "must drain what remains");
+    assertEquals(10, results.size(), "every element must be drained");
+  }
+
+  @Test
+  void ensureConcurrentProducersLoseNothing() throws InterruptedException {
+    val producers = 8;
+    val count = 10000;
+    val queue = new MpscQueue<Integer>();
+    val executor = Executors.newFixedThreadPool(producers);
+    val done = new CountDownLatch(producers);
+    try {
+      for (int p = 0; p < producers; p++) {
+        val offset = p * count;
+        executor.submit(
+            () -> {
+              for (int i = 0; i < count; i++) {
+                queue.offer(offset + i);
+              }
+              done.countDown();
+            });
+      }
+      val results = new HashSet<Integer>();
+      while (results.size() < producers * count) {
+        queue.drain(results::add, 256);
+      }
+      assertTrue(done.await(10, TimeUnit.SECONDS), "producers must complete");
+      assertTrue(queue.isEmpty(), "queue must be empty");
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+}
@@ -0,0 +1,39 @@
+package io.zephyr.kernel.concurrency;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import lombok.val;
+import org.junit.jupiter.api.Test;
+
+@SuppressWarnings("PMD.JUnitTestContainsTooManyAsserts")
+class TaskDurationsTest {
+
+  @Test
+  void ensureVersionsAreIgnored() {
+    val durations = new TaskDurations();
+    durations.record("plugin:start:test:plugin:1.0.0", 100);
+    assertEquals(100, durations.estimate("plugin:start:test:plugin:1.0.1-SNAPSHOT"));
+    assertEquals(1, durations.size(), "versions must share one entry");
+  }
+
+  @Test
+  void ensureNamesWithoutVersionsAreKeptWhole() {
+    assertEquals("kernel:stop:classloader", TaskDurations.keyOf("kernel:stop:classloader"));
+    assertEquals(
+        "module:download:http://host:8080/plugin.war",
+        TaskDurations.keyOf("module:download:http://host:8080/plugin.war"));
+  }
+
+  @Test
+  void ensureTheLeastRecentlyUsedNamesAreForgotten() {
+    val durations = new TaskDurations(2);
+    durations.record("first", 100);
+    durations.record("second", 200);
+    durations.estimate("first");
+    durations.record("third", 300);
+    assertEquals(2, durations.size(), "capacity must be respected");
+    assertEquals(100, durations.estimate("first"));
+    assertEquals(TaskDurations.DEFAULT_ESTIMATE, durations.estimate("second"));
+    assertEquals(300, durations.estimate("third"));
+  }
+}
@@ -1,6 +1,7 @@
 package io.zephyr.kernel.concurrency;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
@@ -13,8 +14,10 @@ import io.sunshower.lang.events.EventListener;
 import io.zephyr.kernel.concurrency.Process.Mode;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 import lombok.SneakyThrows;
 import lombok.val;
 import org.junit.jupiter.api.BeforeEach;
@@ -140,6 +143,113 @@ class TopologyAwareParallelSchedulerTest {
     assertEquals(results.get(1), "a", "must be second");
   }
 
+  @Test
+  void ensureTaskIsReleasedBeforePreviousStageDrains()
+      throws ExecutionException, InterruptedException {
+    val released = new CountDownLatch(1);
+    val results = new ArrayList<Boolean>();
+
+    graph.connect(
+        new Task("a") {
+          @Override
+          public TaskValue run(Scope scope) {
+            return null;
+          }
+        },
+        new Task("b") {
+          @Override
+          @SneakyThrows
+          public TaskValue run(Scope scope) {
+            results.add(released.await(5, TimeUnit.SECONDS));
+            return null;
+          }
+        },
+        DirectedGraph.incoming("a dependsOn b"));
+
+    graph.connect(
+        new Task("c") {
+          @Override
+          public TaskValue run(Scope scope) {
+            released.countDown();
+            return null;
+          }
+        },
+        new Task("d") {
+          @Override
+          public TaskValue run(Scope scope) {
+            return null;
+          }
+        },
+        DirectedGraph.incoming("c dependsOn d"));
+
+    val process = scheduleFrom(graph);
+    process.setMode(Mode.UserspaceAllocated);
+    scheduler.submit(process, scope).get();
+    assertTrue(results.get(0), "c must not wait for b to complete");
+  }
+
+  @RepeatedTest(20)
+  void ensureCriticalPathIsScheduledFirst() throws ExecutionException, InterruptedException {
+    val results = new ArrayList<String>();
+    graph.add(
+        new Task("x") {
+          @Override
+          public TaskValue run(Scope scope) {
+            results.add(name);
+            return null;
+          }
+        });
+
+    graph.connect(
+        new Task("z") {
+          @Override
+          public TaskValue run(Scope scope) {
+            results.add(name);
+            return null;
+          }
+        },
+        new Task("y") {
+          @Override
+          public TaskValue run(Scope scope) {
+            results.add(name);
+            return null;
+          }
+        },
+        DirectedGraph.incoming("z dependsOn y"));
+
+    scheduler.submit(scheduleFrom(graph), scope).get();
+    assertEquals("y", results.get(0), "the longest path must be started first");
+  }
+
+  @Test
+  @SuppressWarnings({"rawtypes", "unchecked"})
+  void ensureEachStageDispatchesPhaseEvents() throws ExecutionException, InterruptedException {
+    graph.connect(
+        new Task("a") {
+          @Override
+          public TaskValue run(Scope scope) {
+            return null;
+          }
+        },
+        new Task("b") {
+          @Override
+          public TaskValue run(Scope scope) {
+            return null;
+          }
+        },
+        DirectedGraph.incoming("a dependsOn b"));
+
+    val listener = mock(EventListener.class);
+    val schedule = scheduleFrom(graph);
+    val starting = schedule.addEventListener(TaskEvents.TASK_PHASE_STARTING, listener);
+    val complete = schedule.addEventListener(TaskEvents.TASK_PHASE_COMPLETE, listener);
+    scheduler.submit(schedule, scope).get();
+    verify(listener, timeout(500).times(2)).onEvent(eq(TaskEvents.TASK_PHASE_STARTING), any());
+    verify(listener, timeout(500).times(2)).onEvent(eq(TaskEvents.TASK_PHASE_COMPLETE), any());
+    starting.dispose();
+    complete.dispose();
+  }
+
   private Process<String> scheduleFrom(TaskGraph<String> graph) {
     return new DefaultProcess<String>("test", false, false, Scope.root(), graph);
   }
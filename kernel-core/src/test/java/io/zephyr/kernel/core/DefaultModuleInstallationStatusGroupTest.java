@@ -0,0 +1,66 @@
+package io.zephyr.kernel.core;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+import io.zephyr.common.Options;
+import io.zephyr.kernel.extensions.EntryPoint;
+import io.zephyr.kernel.launch.KernelOptions;
+import io.zephyr.kernel.module.ModuleInstallationGroup;
+import io.zephyr.kernel.module.ModuleInstallationRequest;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.nio.file.FileSystem;
+import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.Set;
+import lombok.val;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.parallel.Isolated;
+
+@Isolated("replaces the kernel options")
+class DefaultModuleInstallationStatusGroupTest {
+
+  static final String LOCATION = "file:/modules/module.war";
+
+  @Test
+  void ensureVerificationIsScheduledWhenRequested() throws MalformedURLException {
+    val tasks = taskNames("--verify-module-signatures");
+    assertTrue(tasks.contains("module:verify:" + LOCATION), "verification must be scheduled");
+  }
+
+  @Test
+  void ensureVerificationIsNotScheduledByDefault() throws MalformedURLException {
+    val tasks = taskNames();
+    assertFalse(tasks.contains("module:verify:" + LOCATION), "verification must be optional");
+    assertTrue(tasks.contains("module:scan:" + LOCATION), "scanning must be scheduled");
+  }
+
+  private Set<String> taskNames(String... args) throws MalformedURLException {
+    val context = new EnumMap<>(EntryPoint.ContextEntries.class);
+    context.put(EntryPoint.ContextEntries.ARGS, args);
+    SunshowerKernel.setKernelOptions(Options.create(KernelOptions::new, context));
+
+    val fs = mock(FileSystem.class);
+    given(fs.getPath(anyString())).willReturn(Path.of("downloads"));
+    val kernel = mock(Kernel.class);
+    given(kernel.getFileSystem()).willReturn(fs);
+
+    val request = new ModuleInstallationRequest();
+    request.setLocation(new URL(LOCATION));
+    val group =
+        new DefaultModuleInstallationStatusGroup(new ModuleInstallationGroup(request), kernel);
+
+    val result = new HashSet<String>();
+    for (val stage : group.getProcess().getTasks()) {
+      for (val task : stage.getTasks()) {
+        result.add(task.getValue().getName());
+      }
+    }
+    return result;
+  }
+}
@@ -0,0 +1,31 @@
+package io.zephyr.kernel.core;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.net.URL;
+import java.net.URLClassLoader;
+import lombok.val;
+import org.junit.jupiter.api.Test;
+
+class KernelExtensionRegistryTest {
+
+  @Test
+  void ensureExtensionsAreDiscoveredOncePerClassloader() {
+    val kernel = mock(Kernel.class);
+    val classLoader = getClass().getClassLoader();
+    when(kernel.getClassLoader()).thenReturn(classLoader);
+
+    val registry = new KernelExtensionRegistry(kernel);
+    val scanners = registry.get(ModuleScanner.class);
+    assertFalse(scanners.isEmpty(), "the manifest scanner must be discovered");
+    assertSame(scanners, registry.get(ModuleScanner.class), "scanners must be reused");
+
+    when(kernel.getClassLoader()).thenReturn(new URLClassLoader(new URL[0], classLoader));
+    assertNotSame(
+        scanners, registry.get(ModuleScanner.class), "a new classloader must be rescanned");
+  }
+}
@@ -0,0 +1,72 @@
+package io.zephyr.kernel.core.actions;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import lombok.val;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+@SuppressWarnings("PMD.JUnitTestContainsTooManyAsserts")
+class DownloadCacheTest {
+
+  @TempDir Path directory;
+
+  @Test
+  void ensureUnchangedSourcesAreServedFromTheCache() throws IOException {
+    val cache = new DownloadCache(directory.resolve("cache"));
+    val url = new URL("http://example.com/module.war");
+    val content = new byte[] {1, 2, 3};
+    val downloaded = Files.write(directory.resolve("module.war"), content);
+
+    assertNull(cache.lookup(url, 10, 3), "nothing must be cached yet");
+    val blob =
+        cache.store(url, downloaded, DownloadCache.newDigest().digest(content), 10, content.length);
+    assertArrayEquals(content, Files.readAllBytes(downloaded), "content must be materialized");
+    assertEquals(blob, cache.lookup(url, 10, 3), "unchanged source must be cached");
+    assertNull(cache.lookup(url, 11, 3), "modified source must not be cached");
+
+    val restored = directory.resolve("restored.war");
+    assertNull(cache.restore(url, 11, 3, restored), "modified source must not be restored");
+    assertFalse(Files.exists(restored), "nothing must be materialized for a modified source");
+    assertEquals(blob, cache.restore(url, 10, 3, restored), "unchanged source must be restored");
+    assertArrayEquals(content, Files.readAllBytes(restored), "content must be materialized");
+  }
+
+  @Test
+  void ensureLeastRecentlyUsedSourcesAreEvictedBeyondTheMaximumSize() throws IOException {
+    val cache = new DownloadCache(directory.resolve("cache"), 5);
+    val first = new URL("http://example.com/first.war");
+    val second = new URL("http://example.com/second.war");
+
+    val firstBlob = store(cache, first, new byte[] {1, 2, 3});
+    val secondBlob = store(cache, second, new byte[] {4, 5, 6});
+    assertNull(cache.lookup(first, 10, 3), "older source must be evicted");
+    assertFalse(Files.exists(firstBlob), "evicted content must be removed");
+    assertEquals(secondBlob, cache.lookup(second, 10, 3), "newest source must be kept");
+  }
+
+  @Test
+  void ensureUnreferencedContentIsRemoved() throws IOException {
+    val cache = new DownloadCache(directory.resolve("cache"));
+    val url = new URL("http://example.com/module.war");
+
+    val previous = store(cache, url, new byte[] {1, 2, 3});
+    val current = store(cache, url, new byte[] {4, 5, 6});
+    assertFalse(Files.exists(previous), "replaced content must be removed");
+    assertTrue(Files.exists(current), "current content must be kept");
+  }
+
+  private Path store(DownloadCache cache, URL url, byte[] content) throws IOException {
+    val downloaded = Files.write(directory.resolve("download"), content);
+    return cache.store(
+        url, downloaded, DownloadCache.newDigest().digest(content), 10, content.length);
+  }
+}
@@ -0,0 +1,190 @@
+package io.zephyr.kernel.core.actions;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import io.sunshower.gyre.Scope;
+import io.zephyr.kernel.concurrency.TaskException;
+import io.zephyr.kernel.core.Kernel;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.KeyStore;
+import java.security.PrivateKey;
+import java.security.cert.CertificateFactory;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipInputStream;
+import java.util.zip.ZipOutputStream;
+import jdk.security.jarsigner.JarSigner;
+import lombok.val;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ModuleVerificationPhaseTest {
+
+  static final String PASSWORD = "changeit";
+  static final String ALIAS = "module";
+
+  @TempDir Path directory;
+
+  private Kernel kernel;
+  private Scope scope;
+
+  @BeforeEach
+  void setUp() {
+    kernel = mock(Kernel.class);
+    scope = Scope.root();
+    scope.set("SunshowerKernel", kernel);
+  }
+
+  @Test
+  void ensureUnsignedModulesPass() throws Exception {
+    val unsigned = jar("unsigned.jar", Map.of("a.txt", "a", "b.txt", "b"));
+    run(unsigned);
+    verify(kernel).dispatchEvent(eq(ModulePhaseEvents.MODULE_VERIFICATION_COMPLETED), any());
+  }
+
+  @Test
+  void ensureIntactSignedModulesPass() throws Exception {
+    val signed = sign(jar("module.jar", Map.of("a.txt", "a", "b.txt", "b")));
+    run(signed);
+    verify(kernel).dispatchEvent(eq(ModulePhaseEvents.MODULE_VERIFICATION_COMPLETED), any());
+  }
+
+  @Test
+  void ensureSignedModulesWithTamperedEntriesFail() throws Exception {
+    val signed = sign(jar("module.jar", Map.of("a.txt", "a", "b.txt", "b")));
+    val tampered = copy(signed, "tampered.jar", "a.txt", "tampered");
+    assertFails(tampered);
+  }
+
+  @Test
+  void ensureSignedModulesWithUnsignedEntriesFail() throws Exception {
+    val signed = sign(jar("module.jar", Map.of("a.txt", "a")));
+    val extended = copy(signed, "extended.jar", "c.txt", "unsigned");
+    assertFails(extended);
+  }
+
+  @Test
+  void ensureSignedModulesWithUnsignedServiceFilesFail() throws Exception {
+    val signed = sign(jar("module.jar", Map.of("a.txt", "a")));
+    val injected = copy(signed, "injected.jar", "META-INF/services/x", "io.zephyr.Injected");
+    assertFails(injected);
+  }
+
+  private void assertFails(File file) {
+    assertThrows(TaskException.class, () -> run(file));
+    verify(kernel).dispatchEvent(eq(ModulePhaseEvents.MODULE_VERIFICATION_FAILED), any());
+    verify(kernel, never())
+        .dispatchEvent(eq(ModulePhaseEvents.MODULE_VERIFICATION_COMPLETED), any());
+  }
+
+  private void run(File file) {
+    scope.set(ModuleDownloadPhase.DOWNLOADED_FILE, file);
+    new ModuleVerificationPhase("verify").run(scope);
+  }
+
+  private File jar(String name, Map<String, String> entries) throws IOException {
+    val result = directory.resolve(name);
+    try (val output = new ZipOutputStream(Files.newOutputStream(result))) {
+      for (val entry : entries.entrySet()) {
+        write(output, entry.getKey(), entry.getValue().getBytes(StandardCharsets.UTF_8));
+      }
+    }
+    return result.toFile();
+  }
+
+  /** @return a copy of the archive with the named entry added or its content replaced */
+  private File copy(File source, String name, String entryName, String content)
+      throws IOException {
+    val result = directory.resolve(name);
+    var replaced = false;
+    try (val input = new ZipInputStream(Files.newInputStream(source.toPath()));
+        val output = new ZipOutputStream(Files.newOutputStream(result))) {
+      for (var entry = input.getNextEntry(); entry != null; entry = input.getNextEntry()) {
+        if (entry.getName().equals(entryName)) {
+          write(output, entryName, content.getBytes(StandardCharsets.UTF_8));
+          replaced = true;
+        } else {
+          write(output, entry.getName(), input.readAllBytes());
+        }
+      }
+      if (!replaced) {
+        write(output, entryName, content.getBytes(StandardCharsets.UTF_8));
+      }
+    }
+    return result.toFile();
+  }
+
+  private static void write(ZipOutputStream output, String name, byte[] content)
+      throws IOException {
+    output.putNextEntry(new ZipEntry(name));
+    output.write(content);
+    output.closeEntry();
+  }
+
+  private File sign(File unsigned) throws Exception {
+    val keystore = directory.resolve("keystore.p12");
+    if (!Files.exists(keystore)) {
+      generateKey(keystore);
+    }
+    val store = KeyStore.getInstance("PKCS12");
+    try (val input = Files.newInputStream(keystore)) {
+      store.load(input, PASSWORD.toCharArray());
+    }
+    val key = (PrivateKey) store.getKey(ALIAS, PASSWORD.toCharArray());
+    val certificates =
+        CertificateFactory.getInstance("X.509")
+            .generateCertPath(Arrays.asList(store.getCertificateChain(ALIAS)));
+
+    val signed = directory.resolve("signed-" + unsigned.getName());
+    try (val input = new ZipFile(unsigned);
+        val output = Files.newOutputStream(signed)) {
+      new JarSigner.Builder(key, certificates).build().sign(input, output);
+    }
+    return signed.toFile();
+  }
+
+  private static void generateKey(Path keystore) throws IOException, InterruptedException {
+    val keytool = Path.of(System.getProperty("java.home"), "bin", "keytool").toString();
+    val process =
+        new ProcessBuilder(
+                keytool,
+                "-genkeypair",
+                "-keystore",
+                keystore.toString(),
+                "-storetype",
+                "PKCS12",
+                "-storepass",
+                PASSWORD,
+                "-keypass",
+                PASSWORD,
+                "-alias",
+                ALIAS,
+                "-keyalg",
+                "RSA",
+                "-keysize",
+                "2048",
+                "-validity",
+                "2",
+                "-dname",
+                "CN=zephyr-test")
+            .redirectErrorStream(true)
+            .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+            .start();
+    process.waitFor(1, TimeUnit.MINUTES);
+    assertEquals(0, process.exitValue(), "keytool must generate a key");
+  }
+}
@@ -0,0 +1,90 @@
+package io.zephyr.kernel.core.actions;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+import io.sunshower.gyre.Scope;
+import io.zephyr.kernel.Assembly;
+import io.zephyr.kernel.KernelModuleEntry;
+import io.zephyr.kernel.Module;
+import io.zephyr.kernel.core.Kernel;
+import io.zephyr.kernel.core.ModuleCoordinate;
+import io.zephyr.kernel.core.lifecycle.KernelModuleListReadPhase;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.FileSystem;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import lombok.val;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class WriteKernelModuleListPhaseTest {
+
+  static final String LISTED = "1:test:listed:1.0.0\n";
+
+  @TempDir Path directory;
+
+  private Path moduleList;
+  private Scope scope;
+  private Module module;
+
+  @BeforeEach
+  void setUp() throws IOException {
+    moduleList = Files.writeString(directory.resolve(KernelModuleEntry.MODULE_LIST), LISTED);
+    val fs = mock(FileSystem.class);
+    given(fs.getPath(anyString()))
+        .willAnswer(invocation -> directory.resolve(invocation.getArgument(0, String.class)));
+    val kernel = mock(Kernel.class);
+    given(kernel.getFileSystem()).willReturn(fs);
+
+    module = mock(Module.class);
+    given(module.getOrder()).willReturn(2);
+    given(module.getCoordinate()).willReturn(ModuleCoordinate.create("test", "added", "1.0.0"));
+    given(module.getLibraries()).willReturn(Collections.emptySet());
+    given(module.getAssembly())
+        .willReturn(new Assembly(directory.resolve("added.jar").toFile()));
+
+    scope = Scope.root();
+    scope.set("SunshowerKernel", kernel);
+    scope.set(ModuleInstallationCompletionPhase.INSTALLED_KERNEL_MODULES, Set.of(module));
+  }
+
+  @Test
+  void ensureEntriesReadAtTheStartAreReusedWhileTheListIsUnchanged() throws IOException {
+    // the read says the module is already listed, and the file hasn't changed since
+    scope.set(KernelModuleListReadPhase.INSTALLED_MODULE_LIST, List.of(entry()));
+    scope.set(KernelModuleListReadPhase.INSTALLED_MODULE_LIST_LENGTH, Files.size(moduleList));
+
+    new WriteKernelModuleListPhase("write").run(scope);
+    assertEquals(LISTED, read(), "listed module must not be appended again");
+  }
+
+  @Test
+  void ensureTheListIsReparsedOnceItHasChanged() throws IOException {
+    scope.set(KernelModuleListReadPhase.INSTALLED_MODULE_LIST, List.of(entry()));
+    scope.set(KernelModuleListReadPhase.INSTALLED_MODULE_LIST_LENGTH, Files.size(moduleList) - 1);
+
+    new WriteKernelModuleListPhase("write").run(scope);
+    assertEquals(LISTED + entry() + "\n", read(), "module missing from the file must be appended");
+  }
+
+  private KernelModuleEntry entry() {
+    return new KernelModuleEntry(
+        2,
+        "added",
+        "test",
+        "1.0.0",
+        List.of(directory.resolve("added.jar").toFile().getAbsolutePath()));
+  }
+
+  private String read() throws IOException {
+    return Files.readString(moduleList, Charset.defaultCharset());
+  }
+}
@@ -84,6 +84,30 @@ class DefaultDependencyGraphTest {
     assertEquals(graph.size(), 2, "must have correct dependency count");
   }
 
+  @Test
+  void ensureIncrementalAddResolvesAgainstInstalledModules() {
+    val dependency = module("b");
+    graph.add(dependency);
+    val results = graph.add(module("a", "b"));
+    assertTrue(
+        results.stream().allMatch(t -> t.getDependencies().isEmpty()),
+        "must resolve against previously installed module");
+    assertFalse(
+        graph.add(module("c", "d")).stream().allMatch(t -> t.getDependencies().isEmpty()),
+        "must not resolve missing module");
+    assertEquals(graph.size(), 2, "must not add unresolved module");
+  }
+
+  @Test
+  void ensureIterationReadsSnapshotUnaffectedByLaterMutations() {
+    graph.add(module("a"));
+    val iterator = graph.iterator();
+    graph.add(module("b"));
+    assertEquals(iterator.next().getCoordinate(), module("a").getCoordinate());
+    assertFalse(iterator.hasNext(), "must not observe module added after iteration began");
+    assertTrue(graph.contains(module("b").getCoordinate()), "must observe completed add");
+  }
+
   @Test
   void ensureRetrievingDependentsWorks() {
 
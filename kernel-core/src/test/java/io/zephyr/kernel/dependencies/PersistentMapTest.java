@@ -0,0 +1,93 @@
+package io.zephyr.kernel.dependencies;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import lombok.val;
+import org.junit.jupiter.api.Test;
+
+@SuppressWarnings({"PMD.JUnitTestContainsTooManyAsserts", "PMD.AvoidInstantiatingObjectsInLoops"})
+class PersistentMapTest {
+
+  @Test
+  void ensureEarlierVersionsAreUnaffectedByLaterChanges() {
+    PersistentMap<Integer, String> map = PersistentMap.empty();
+    for (int i = 0; i < 5000; i++) {
+      map = map.plus(i, "v" + i);
+    }
+    val before = map;
+    for (int i = 0; i < 5000; i += 2) {
+      map = map.minus(i);
+    }
+    assertEquals(5000, before.size());
+    assertEquals(2500, map.size());
+    assertEquals(5000, new HashSet<>(before.values()).size());
+    for (int i = 0; i < 5000; i++) {
+      assertEquals("v" + i, before.get(i));
+      assertEquals(i % 2 == 0 ? null : "v" + i, map.get(i));
+    }
+  }
+
+  @Test
+  void ensureCollidingKeysAreKeptApart() {
+    PersistentMap<Colliding, String> map = PersistentMap.empty();
+    for (int i = 0; i < 10; i++) {
+      map = map.plus(new Colliding(i), "v" + i);
+    }
+    map = map.plus(new Colliding(3), "replaced").minus(new Colliding(4));
+    assertEquals(9, map.size());
+    assertEquals("replaced", map.get(new Colliding(3)));
+    assertNull(map.get(new Colliding(4)));
+    assertFalse(map.containsKey(new Colliding(11)));
+  }
+
+  @Test
+  void ensureUnchangedMapsAreReused() {
+    PersistentMap<String, String> map = PersistentMap.<String, String>empty().plus("a", "b");
+    assertSame(map, map.minus("missing"));
+    assertSame(map, map.plus("a", map.get("a")));
+  }
+
+  @Test
+  void ensureValuesAreIteratedInInsertionOrder() {
+    PersistentMap<Integer, String> map = PersistentMap.empty();
+    val expected = new ArrayList<String>();
+    for (int i = 0; i < 1000; i++) {
+      val key = (i * 7919) % 1000;
+      map = map.plus(key, "v" + key);
+      expected.add("v" + key);
+    }
+    assertEquals(expected, map.values(), "values must follow insertion order");
+
+    map = map.plus(0, "replaced");
+    expected.set(expected.indexOf("v0"), "replaced");
+    assertEquals(expected, map.values(), "a replaced value must keep its place");
+
+    map = map.minus(1).plus(1, "readded");
+    expected.remove("v1");
+    expected.add("readded");
+    assertEquals(expected, map.values(), "a re-added key must move to the end");
+  }
+
+  static final class Colliding {
+    final int value;
+
+    Colliding(int value) {
+      this.value = value;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      return o instanceof Colliding && ((Colliding) o).value == value;
+    }
+
+    @Override
+    public int hashCode() {
+      return 42;
+    }
+  }
+}
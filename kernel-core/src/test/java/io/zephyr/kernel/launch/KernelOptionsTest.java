@@ -84,4 +84,34 @@ class KernelOptionsTest {
 
     assertEquals("boop", options.getHomeDirectory().getName(), "Home directory should be settable");
   }
+
+  @Test
+  void ensureVirtualModuleThreadsAreSettable() {
+    val context = new EnumMap<>(EntryPoint.ContextEntries.class);
+    context.put(EntryPoint.ContextEntries.ARGS, new String[] {"--virtual-module-threads"});
+
+    val options = Options.create(KernelOptions::new, context);
+
+    assertTrue(options.isVirtualModuleThreads(), "Virtual module threads should be settable");
+  }
+
+  @Test
+  void ensureModuleClassListsAreSettable() {
+    val context = new EnumMap<>(EntryPoint.ContextEntries.class);
+    context.put(EntryPoint.ContextEntries.ARGS, new String[] {"--module-class-lists"});
+
+    val options = Options.create(KernelOptions::new, context);
+
+    assertTrue(options.isModuleClassLists(), "Module class lists should be settable");
+  }
+
+  @Test
+  void ensureModuleSignatureVerificationIsSettable() {
+    val context = new EnumMap<>(EntryPoint.ContextEntries.class);
+    context.put(EntryPoint.ContextEntries.ARGS, new String[] {"--verify-module-signatures"});
+
+    val options = Options.create(KernelOptions::new, context);
+
+    assertTrue(options.isVerifyModuleSignatures(), "Signature verification should be settable");
+  }
 }
@@ -1,6 +1,7 @@
 package io.zephyr.kernel.module;
 
 import static java.lang.String.format;
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
@@ -11,11 +12,17 @@ import io.zephyr.kernel.core.PathSpecification.Mode;
 import java.io.IOException;
 import java.io.PushbackReader;
 import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipOutputStream;
 import lombok.SneakyThrows;
 import lombok.val;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.ValueSource;
 
@@ -469,4 +476,19 @@ class ManifestModuleScannerTest {
   private PushbackReader readerFor(String s) {
     return new PushbackReader(new StringReader(s));
   }
+
+  @Test
+  @SneakyThrows
+  void ensureManifestIsReadRegardlessOfEntryNameCase(@TempDir Path directory) {
+    val file = directory.resolve("module.jar");
+    try (val output = new ZipOutputStream(Files.newOutputStream(file))) {
+      output.putNextEntry(new ZipEntry("meta-inf/manifest.mf"));
+      output.write("Manifest-Version: 1.0\r\nGroup: io.zephyr\r\n\r\n".getBytes(UTF_8));
+      output.closeEntry();
+    }
+    try (val archive = new ZipFile(file.toFile())) {
+      val manifest = ManifestModuleScanner.readManifest(archive);
+      assertEquals("io.zephyr", manifest.getMainAttributes().getValue("Group"));
+    }
+  }
 }
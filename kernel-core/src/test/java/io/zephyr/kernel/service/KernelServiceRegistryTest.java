@@ -93,4 +93,20 @@ class KernelServiceRegistryTest extends ServiceRegistryTestCase {
     registration.dispose();
     assertTrue(moduleRegistry.registrations.contains(reg2), "must remove correct registration");
   }
+
+  @Test
+  void ensureRegistrationsAreIndexedBySupertype() {
+    registerListener(listener, ServiceEvents.REGISTERED, ServiceEvents.UNREGISTERED);
+    val registration =
+        registry.register(
+            module, new DefaultServiceDefinition<>(CharSequence.class, "hello", "whatever"));
+    registry.register(module, new DefaultServiceDefinition<>(Integer.class, "int-service", 1));
+
+    assertEquals(1, registry.getRegistrations(String.class).size(), "must find supertype");
+    assertEquals(1, registry.getRegistrations(Integer.class).size(), "must find exact type");
+    assertTrue(registry.getRegistrations(Long.class).isEmpty(), "must not find unrelated type");
+
+    registration.dispose();
+    assertTrue(registry.getRegistrations(String.class).isEmpty(), "must remove from index");
+  }
 }
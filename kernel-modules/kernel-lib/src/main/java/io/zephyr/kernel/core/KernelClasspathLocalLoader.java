@@ -4,7 +4,11 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.ServiceLoader;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Level;
 import lombok.extern.java.Log;
 import lombok.val;
@@ -17,32 +21,68 @@ public class KernelClasspathLocalLoader implements LocalLoader, AutoCloseable {
 
   final ClassLoader classLoader;
   final List<ResourceLoader> strategies;
-  final ThreadLocal<ModulePackageConstraintSet> moduleOverriddenPackageConstraintSet;
+  /**
+   * context classloader -> the constraints it provides. Constraint sets are immutable and don't
+   * reference their classloader, so the keys are weak and a module's classloader may be collected
+   * once the module is gone
+   */
+  final Map<ClassLoader, ModulePackageConstraintSet> moduleOverriddenPackageConstraintSets;
+
+  /** frameworks probe for many optional classes--keep misses bounded rather than evicting them */
+  static final int MAX_MISSES = 8192;
+
+  /**
+   * names that could not be found on the kernel classpath. Whether a class may be re-exported
+   * depends on the calling module, so only lookups that were permitted and then failed are kept
+   */
+  final Set<String> missingClasses;
+
+  final Set<String> missingResources;
 
   public KernelClasspathLocalLoader(final Kernel kernel) {
     this.strategies = new ArrayList<>();
     this.classLoader = kernel.getClassLoader();
-    this.moduleOverriddenPackageConstraintSet = new ThreadLocal<>();
+    this.moduleOverriddenPackageConstraintSets = Collections.synchronizedMap(new WeakHashMap<>());
+    this.missingClasses = ConcurrentHashMap.newKeySet();
+    this.missingResources = ConcurrentHashMap.newKeySet();
     initialize();
   }
 
   @Override
   public Class<?> loadClassLocal(String name, boolean resolve) {
+    if (missingClasses.contains(name)) {
+      return null;
+    }
     try {
       if (canReexportPackage(getPackageName(name)) || canReexportPackage(name)) {
         return Class.forName(name, true, classLoader);
       } else {
         log.log(
-            Level.INFO,
-            String.format(
-                "Found, but not loading external class ('%s')--not in Zephyr public API", name));
+            Level.FINE,
+            "Found, but not loading external class (''{0}'')--not in Zephyr public API",
+            name);
         return null;
       }
     } catch (ClassNotFoundException e) {
+      remember(missingClasses, name);
       return null;
     }
   }
 
+  /** forgets every cached miss and constraint set. Called when the module is redefined */
+  public void invalidate() {
+    moduleOverriddenPackageConstraintSets.clear();
+    missingClasses.clear();
+    missingResources.clear();
+  }
+
+  private static void remember(Set<String> misses, String name) {
+    if (misses.size() >= MAX_MISSES) {
+      misses.clear();
+    }
+    misses.add(name);
+  }
+
   static String getPackageName(String className) {
     val lastIdx = className.lastIndexOf(".");
     if (lastIdx == -1) {
@@ -52,23 +92,24 @@ public class KernelClasspathLocalLoader implements LocalLoader, AutoCloseable {
     return className.substring(0, lastIdx);
   }
 
-  private synchronized boolean canReexportPackage(String packageName) {
-    val result = ModulePackageConstraintSet.canReexportPackage(packageName, classLoader);
-    if (result) {
-      return result;
+  private boolean canReexportPackage(String packageName) {
+    if (ModulePackageConstraintSet.canReexportPackage(packageName, classLoader)) {
+      return true;
     }
-    var cached = moduleOverriddenPackageConstraintSet.get();
-    if (cached == null) {
-      val threadClassLoader = Thread.currentThread().getContextClassLoader();
-      if (threadClassLoader != null) {
-        cached = new ModulePackageConstraintSet(threadClassLoader);
-        moduleOverriddenPackageConstraintSet.set(cached);
-      }
+    val threadClassLoader = Thread.currentThread().getContextClassLoader();
+    if (threadClassLoader == null) {
+      return false;
     }
-    if (cached != null) {
-      return cached.canReexport(packageName);
+    var constraints = moduleOverriddenPackageConstraintSets.get(threadClassLoader);
+    if (constraints == null) {
+      // computed outside of the map's lock--loading the providers may itself load classes
+      val computed = new ModulePackageConstraintSet(threadClassLoader);
+      constraints = moduleOverriddenPackageConstraintSets.putIfAbsent(threadClassLoader, computed);
+      if (constraints == null) {
+        constraints = computed;
+      }
     }
-    return false;
+    return constraints.canReexport(packageName);
   }
 
   @Override
@@ -78,6 +119,9 @@ public class KernelClasspathLocalLoader implements LocalLoader, AutoCloseable {
 
   @Override
   public List<Resource> loadResourceLocal(String name) {
+    if (missingResources.contains(name)) {
+      return Collections.emptyList();
+    }
     try {
       val resources = classLoader.getResources(name);
       val results = new ArrayList<Resource>();
@@ -85,6 +129,9 @@ public class KernelClasspathLocalLoader implements LocalLoader, AutoCloseable {
         results.add(new URLResource(resources.nextElement()));
       }
       loadExternal(name, results);
+      if (results.isEmpty()) {
+        remember(missingResources, name);
+      }
       return results;
     } catch (IOException ex) {
       return Collections.emptyList();
@@ -113,5 +160,6 @@ public class KernelClasspathLocalLoader implements LocalLoader, AutoCloseable {
   @Override
   public void close() throws Exception {
     strategies.clear();
+    invalidate();
   }
 }
@@ -9,13 +9,11 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
-import java.util.jar.JarFile;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import lombok.NonNull;
 import lombok.val;
 import org.jboss.modules.DependencySpec;
-import org.jboss.modules.LocalLoader;
 import org.jboss.modules.ModuleDependencySpecBuilder;
 import org.jboss.modules.ModuleFinder;
 import org.jboss.modules.ModuleLoadException;
@@ -37,16 +35,35 @@ public final class KernelModuleFinder implements ModuleFinder, AutoCloseable {
   private final ModuleLoader moduleLoader;
   private final List<ResourceLoader> resourceLoaders;
 
-  private final LocalLoader localLoader;
+  private final KernelClasspathLocalLoader localLoader;
+
+  /** whether to record (or replay) the classes this module loads */
+  private final boolean classLists;
+
+  private volatile ModuleClassList classList;
 
   KernelModuleFinder(
       @NonNull Module module, @NonNull final ModuleLoader loader, @NonNull Kernel kernel) {
+    this(module, loader, kernel, false);
+  }
+
+  KernelModuleFinder(
+      @NonNull Module module,
+      @NonNull final ModuleLoader loader,
+      @NonNull Kernel kernel,
+      boolean classLists) {
     this.module = module;
     this.moduleLoader = loader;
+    this.classLists = classLists;
     this.localLoader = new KernelClasspathLocalLoader(kernel);
     this.resourceLoaders = new ArrayList<>(64);
   }
 
+  /** @return the class list of the module most recently defined, or null if there is none */
+  ModuleClassList getClassList() {
+    return classList;
+  }
+
   @Override
   @SuppressWarnings("PMD.AvoidInstantiatingObjectsInLoops")
   public ModuleSpec findModule(String name, ModuleLoader delegateLoader)
@@ -81,6 +98,7 @@ public final class KernelModuleFinder implements ModuleFinder, AutoCloseable {
     }
 
     val moduleSpec = ModuleSpec.build(identifier);
+    localLoader.invalidate();
 
     try {
       createRootResource(moduleSpec, assemblyFile, assembly.getSubpaths());
@@ -111,6 +129,14 @@ public final class KernelModuleFinder implements ModuleFinder, AutoCloseable {
 
     moduleSpec.setFallbackLoader(localLoader);
 
+    if (classLists) {
+      val list = ModuleClassList.open(module);
+      if (list != null && list.isRecording()) {
+        moduleSpec.setClassFileTransformer(list);
+      }
+      classList = list;
+    }
+
     return moduleSpec.create();
   }
 
@@ -173,13 +199,14 @@ public final class KernelModuleFinder implements ModuleFinder, AutoCloseable {
 
   private void createRootResource(ModuleSpec.Builder spec, File file, String name)
       throws IOException {
-    val loader = register(ResourceLoaders.createJarResourceLoader(new JarFile(file), name));
+    val loader =
+        register(ResourceLoaders.createJarResourceLoader(SharedJarFiles.open(file), name));
     val loaderSpec = ResourceLoaderSpec.createResourceLoaderSpec(loader);
     spec.addResourceRoot(loaderSpec);
   }
 
   private void createRootResource(ModuleSpec.Builder spec, File file) throws IOException {
-    val loader = register(ResourceLoaders.createJarResourceLoader(new JarFile(file)));
+    val loader = register(ResourceLoaders.createJarResourceLoader(SharedJarFiles.open(file)));
     val loaderSpec = ResourceLoaderSpec.createResourceLoaderSpec(loader);
     spec.addResourceRoot(loaderSpec);
   }
@@ -189,6 +216,6 @@ public final class KernelModuleFinder implements ModuleFinder, AutoCloseable {
     for (val resourceLoader : resourceLoaders) {
       resourceLoader.close();
     }
-    ((KernelClasspathLocalLoader) localLoader).close();
+    localLoader.close();
   }
 }
@@ -6,8 +6,9 @@ import io.zephyr.kernel.ModuleException;
 import io.zephyr.kernel.UnsatisfiedDependencyException;
 import io.zephyr.kernel.dependencies.DependencyGraph;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.logging.Level;
 import lombok.NonNull;
 import lombok.SneakyThrows;
@@ -17,7 +18,10 @@ import org.jboss.modules.ModuleLoadException;
 import org.jboss.modules.ModuleLoader;
 import org.jboss.modules.ModuleNotFoundException;
 
-/** this class is intentionally not thread-safe and must be protected by its owner */
+/**
+ * operations on a single module are serialized on that module's coordinate; operations on
+ * different modules (and JBoss Modules' own loading and linking) proceed concurrently
+ */
 @SuppressWarnings("PMD.AvoidUsingVolatile")
 @Log
 public final class KernelModuleLoader extends ModuleLoader
@@ -25,10 +29,21 @@ public final class KernelModuleLoader extends ModuleLoader
 
   private final Kernel kernel;
   private final Map<String, UnloadableKernelModuleLoader> moduleLoaders;
+
+  /**
+   * canonical coordinate -> lock. An entry exists only while some thread holds or waits for it, so
+   * a coordinate maps to one lock at a time and unloaded modules leave nothing behind
+   */
+  final Map<String, CoordinateLock> locks;
+
   private DependencyGraph graph;
 
+  /** record each module's loaded classes on its first start and replay them on later starts */
+  private volatile boolean classListsEnabled;
+
   public KernelModuleLoader(final DependencyGraph graph, Kernel kernel) {
-    moduleLoaders = new HashMap<>();
+    moduleLoaders = new ConcurrentHashMap<>();
+    locks = new ConcurrentHashMap<>();
     this.graph = graph;
     this.kernel = kernel;
   }
@@ -36,31 +51,37 @@ public final class KernelModuleLoader extends ModuleLoader
   @Override
   @SuppressWarnings("PMD.DataflowAnomalyAnalysis")
   public void install(Module module) {
-    synchronized (moduleLoaders) {
-      val coordinate = module.getCoordinate();
-      val id = coordinate.toCanonicalForm();
+    val coordinate = module.getCoordinate();
+    val id = coordinate.toCanonicalForm();
+    val lock = lock(id);
+    try {
       if (module instanceof AbstractModule) {
         var loader = moduleLoaders.get(id);
         if (loader == null) {
-          loader = new UnloadableKernelModuleLoader(new KernelModuleFinder(module, this, kernel));
+          loader = new UnloadableKernelModuleLoader(newFinder(module));
         }
         ((AbstractModule) module).setModuleLoader(loader);
         moduleLoaders.put(id, loader);
       }
+    } finally {
+      unlock(id, lock);
     }
   }
 
   @Override
   @SneakyThrows
   public void uninstall(Coordinate coordinate) {
-    synchronized (moduleLoaders) {
-      val id = coordinate.toCanonicalForm();
+    val id = coordinate.toCanonicalForm();
+    val lock = lock(id);
+    try {
       val loader = moduleLoaders.get(id);
       if (loader != null) {
         loader.unload(coordinate);
         loader.close();
         moduleLoaders.remove(id);
       }
+    } finally {
+      unlock(id, lock);
     }
   }
 
@@ -71,22 +92,25 @@ public final class KernelModuleLoader extends ModuleLoader
 
   @Override
   public void check(Module module) {
-    synchronized (moduleLoaders) {
-      val coord = module.getCoordinate();
-      val canonicalForm = coord.toCanonicalForm();
+    val canonicalForm = module.getCoordinate().toCanonicalForm();
+    val lock = lock(canonicalForm);
+    try {
       if (!moduleLoaders.containsKey(canonicalForm)) {
         install(module);
       } else {
         val loader = moduleLoaders.get(canonicalForm);
         ((AbstractModule) module).setModuleLoader(loader);
       }
+    } finally {
+      unlock(canonicalForm, lock);
     }
   }
 
   @Override
   protected org.jboss.modules.Module preloadModule(final String name) throws ModuleLoadException {
 
-    synchronized (moduleLoaders) {
+    val lock = lock(name);
+    try {
       org.jboss.modules.Module result = loadModuleLocal(name);
       if (result == null) {
         val loader = moduleLoaders.get(name);
@@ -94,13 +118,16 @@ public final class KernelModuleLoader extends ModuleLoader
           throw new ModuleNotFoundException("Module identified by " + name + " was not found");
         }
         result = ModuleLoader.preloadModule(name, loader);
+        replayClassList(loader, result);
       }
       val target = (AbstractModule) graph.get(ModuleCoordinate.parse(name));
-      val loader = new UnloadableKernelModuleLoader(new KernelModuleFinder(target, this, kernel));
+      val loader = new UnloadableKernelModuleLoader(newFinder(target));
       val classpath = new DefaultModuleClasspath(result, loader);
       target.setModuleLoader(loader);
       target.setModuleClasspath(classpath);
       return result;
+    } finally {
+      unlock(name, lock);
     }
   }
 
@@ -115,29 +142,83 @@ public final class KernelModuleLoader extends ModuleLoader
 
   @Override
   public void close() throws Exception {
-    synchronized (moduleLoaders) {
-      for (val loader : moduleLoaders.entrySet()) {
-        try {
-          loader.getValue().close();
-        } catch (Throwable ex) {
-          log.log(
-              Level.WARNING,
-              "Failed to close loader for module {0}, reason: {1}",
-              new Object[] {loader.getKey(), ex.getMessage()});
-        }
+    for (val loader : moduleLoaders.entrySet()) {
+      val lock = lock(loader.getKey());
+      try {
+        loader.getValue().close();
+      } catch (Throwable ex) {
+        log.log(
+            Level.WARNING,
+            "Failed to close loader for module {0}, reason: {1}",
+            new Object[] {loader.getKey(), ex.getMessage()});
+      } finally {
+        unlock(loader.getKey(), lock);
       }
     }
   }
 
+  public boolean isClassListsEnabled() {
+    return classListsEnabled;
+  }
+
+  /**
+   * @param classListsEnabled whether modules defined from now on should record the classes they
+   *     load, and replay them on later starts while their content is unchanged
+   */
+  public void setClassListsEnabled(boolean classListsEnabled) {
+    this.classListsEnabled = classListsEnabled;
+  }
+
+  private KernelModuleFinder newFinder(Module module) {
+    return new KernelModuleFinder(module, this, kernel, classListsEnabled);
+  }
+
+  private void replayClassList(
+      UnloadableKernelModuleLoader loader, org.jboss.modules.Module module) {
+    val classList = loader.finder.getClassList();
+    if (classList != null) {
+      classList.replay(module.getClassLoader());
+    }
+  }
+
+  /** acquires the lock for a coordinate, creating it if no other thread holds or awaits it */
+  CoordinateLock lock(String id) {
+    val lock =
+        locks.compute(
+            id,
+            (k, existing) -> {
+              val result = existing == null ? new CoordinateLock() : existing;
+              result.users++;
+              return result;
+            });
+    lock.lock();
+    return lock;
+  }
+
+  /** releases a lock acquired by lock(id), discarding it once no thread holds or awaits it */
+  void unlock(String id, CoordinateLock lock) {
+    lock.unlock();
+    locks.computeIfPresent(id, (k, existing) -> --existing.users == 0 ? null : existing);
+  }
+
+  static final class CoordinateLock extends ReentrantLock {
+    private static final long serialVersionUID = 1L;
+
+    /** threads (and reentrant acquisitions) holding or awaiting this lock. Guarded by locks */
+    int users;
+  }
+
   final class UnloadableKernelModuleLoader extends ModuleLoader
       implements io.zephyr.kernel.core.ModuleLoader, AutoCloseable {
 
     final KernelModuleLoader loader;
+    final KernelModuleFinder finder;
     private Coordinate coordinate;
 
     UnloadableKernelModuleLoader(KernelModuleFinder kernelModuleFinder) {
       super(kernelModuleFinder);
       loader = KernelModuleLoader.this;
+      finder = kernelModuleFinder;
     }
 
     boolean unload(Coordinate coordinate) throws ModuleLoadException {
@@ -149,6 +230,10 @@ public final class KernelModuleLoader extends ModuleLoader
       val module = findLoadedModuleLocal(id);
 
       if (module != null) {
+        val classList = finder.getClassList();
+        if (classList != null) {
+          classList.save();
+        }
         val result = unloadModuleLocal(id, module);
         refreshResourceLoaders(module);
         setAndRelinkDependencies(module, Collections.emptyList());
@@ -0,0 +1,205 @@
+package io.zephyr.kernel.core;
+
+import io.zephyr.kernel.Library;
+import io.zephyr.kernel.Module;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.ProtectionDomain;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Level;
+import java.util.zip.CRC32;
+import lombok.extern.java.Log;
+import lombok.val;
+import org.jboss.modules.ClassTransformer;
+
+/**
+ * an opt-in class-loading warm-up list (see {@link KernelModuleLoader#setClassListsEnabled}): the
+ * classes a module loaded the last time it ran, stored in the module's filesystem alongside a
+ * signature of the module's content (the size and modification time of its assembly and
+ * libraries). On the first start (or whenever the content changes) the classes the module defines
+ * are recorded and written out when it's unloaded. On later starts the list is replayed on a
+ * low-priority background thread so that the module's classes are loaded before they're first
+ * asked for.
+ *
+ * <p>Entries are internal names, one per line
+ */
+@Log
+@SuppressWarnings({"PMD.AvoidCatchingThrowable", "PMD.AvoidInstantiatingObjectsInLoops"})
+final class ModuleClassList implements ClassTransformer {
+
+  static final String FILE_NAME = "classes.lst";
+  static final String SIGNATURE_PREFIX = "# content ";
+
+  private final Path file;
+  private final String signature;
+
+  /** the classes loaded the last time this content ran, or null if they must be recorded */
+  private final List<String> previous;
+
+  private final Set<String> recorded;
+  private final AtomicBoolean replayed;
+
+  private ModuleClassList(Path file, String signature, List<String> previous) {
+    this.file = file;
+    this.signature = signature;
+    this.previous = previous;
+    this.recorded = ConcurrentHashMap.newKeySet();
+    this.replayed = new AtomicBoolean();
+  }
+
+  /**
+   * @param module the module to record or replay
+   * @return the class list for the module, or null if it has no filesystem or assembly
+   */
+  static ModuleClassList open(Module module) {
+    val filesystem = module.getFileSystem();
+    val assembly = module.getAssembly();
+    if (filesystem == null || assembly == null || assembly.getFile() == null) {
+      return null;
+    }
+    try {
+      val file = filesystem.getPath(FILE_NAME);
+      val signature = signature(assembly.getFile(), module.getLibraries());
+      return new ModuleClassList(file, signature, read(file, signature));
+    } catch (IOException | UnsupportedOperationException ex) {
+      log.log(
+          Level.WARNING,
+          "Unable to open class list for {0}: {1}",
+          new Object[] {module.getCoordinate(), ex.getMessage()});
+      return null;
+    }
+  }
+
+  boolean isRecording() {
+    return previous == null;
+  }
+
+  @Override
+  public ByteBuffer transform(
+      ClassLoader loader, String className, ProtectionDomain protectionDomain, ByteBuffer bytes) {
+    if (isRecording()) {
+      recorded.add(className.replace('.', '/'));
+    }
+    return bytes;
+  }
+
+  /**
+   * loads the previously-recorded classes on the module's classloader, off the kernel's executors.
+   * Only the first call has any effect
+   *
+   * @param classLoader the module's classloader
+   */
+  void replay(ClassLoader classLoader) {
+    replay(classLoader, ReplayExecutor.INSTANCE);
+  }
+
+  /**
+   * loads the previously-recorded classes on the module's classloader. Only the first call has any
+   * effect
+   *
+   * @param classLoader the module's classloader
+   * @param executor the executor to define the classes on
+   */
+  void replay(ClassLoader classLoader, Executor executor) {
+    if (isRecording() || !replayed.compareAndSet(false, true)) {
+      return;
+    }
+    executor.execute(
+        () -> {
+          for (val name : previous) {
+            try {
+              Class.forName(name.replace('/', '.'), false, classLoader);
+            } catch (Throwable ex) {
+              log.log(Level.FINE, "Class {0} is no longer loadable", name);
+            }
+          }
+        });
+  }
+
+  /** writes the recorded classes, if any were recorded */
+  void save() {
+    if (!isRecording() || recorded.isEmpty()) {
+      return;
+    }
+    val lines = new ArrayList<String>(recorded.size() + 1);
+    lines.add(SIGNATURE_PREFIX + signature);
+    lines.addAll(new TreeSet<>(recorded));
+    try {
+      Files.write(file, lines, StandardCharsets.UTF_8);
+    } catch (IOException ex) {
+      log.log(
+          Level.WARNING,
+          "Unable to write class list {0}: {1}",
+          new Object[] {file, ex.getMessage()});
+    }
+  }
+
+  private static List<String> read(Path file, String signature) throws IOException {
+    if (!Files.exists(file)) {
+      return null;
+    }
+    val lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+    if (lines.isEmpty() || !lines.get(0).equals(SIGNATURE_PREFIX + signature)) {
+      return null;
+    }
+    return Collections.unmodifiableList(lines.subList(1, lines.size()));
+  }
+
+  /**
+   * the size and modification time of every file the module's classes come from. Reading the
+   * attributes is cheap enough to do on every start, unlike hashing the content
+   */
+  private static String signature(File assembly, Set<Library> libraries) throws IOException {
+    val checksum = new CRC32();
+    update(checksum, assembly);
+    if (libraries != null) {
+      val files = new TreeSet<File>();
+      for (val library : libraries) {
+        files.add(library.getFile());
+      }
+      for (val library : files) {
+        update(checksum, library);
+      }
+    }
+    return Long.toHexString(checksum.getValue());
+  }
+
+  private static void update(CRC32 checksum, File file) throws IOException {
+    val attributes = Files.readAttributes(file.toPath(), BasicFileAttributes.class);
+    val entry =
+        file.getPath()
+            + ':'
+            + attributes.size()
+            + ':'
+            + attributes.lastModifiedTime().toMillis()
+            + '\n';
+    checksum.update(entry.getBytes(StandardCharsets.UTF_8));
+  }
+
+  /** a single low-priority daemon thread, started on the first replay */
+  static final class ReplayExecutor {
+    static final Executor INSTANCE =
+        Executors.newSingleThreadExecutor(
+            task -> {
+              val thread = new Thread(task, "zephyr-class-list-replay");
+              thread.setDaemon(true);
+              thread.setPriority(Thread.MIN_PRIORITY);
+              return thread;
+            });
+
+    private ReplayExecutor() {}
+  }
+}
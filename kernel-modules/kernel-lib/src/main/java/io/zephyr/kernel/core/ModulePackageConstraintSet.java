@@ -2,8 +2,10 @@ package io.zephyr.kernel.core;
 
 import io.zephyr.kernel.core.KernelPackageReexportConstraintSetProvider.Mode;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.ServiceLoader;
 import java.util.Set;
 import java.util.logging.Level;
@@ -11,16 +13,30 @@ import lombok.NonNull;
 import lombok.extern.java.Log;
 import lombok.val;
 
+/**
+ * immutable once constructed, so a single instance may be shared freely between threads. Prefix
+ * rules are compiled into a character trie, so a lookup costs one walk over the package name no
+ * matter how many rules there are
+ */
 @Log
 final class ModulePackageConstraintSet {
 
+  /** packages that are always visible to modules */
+  static final String[] PLATFORM_PREFIXES = {
+    "java", "com.sun", "javax", "org.w3c", "jdk", "sun", "org.ietf", "org.xml"
+  };
+
+  static final int PLATFORM = 1;
+  static final int INCLUDED = 1 << 1;
+  static final int EXCLUDED = 1 << 2;
+
   static volatile ModulePackageConstraintSet INSTANCE;
   private final Set<String> exactAllowedPackages;
   private final Set<String> defaultPackages;
   private final Set<String> suffixInclusions;
   private final Set<String> suffixExclusions;
   private final Set<String> exactDeniedPackages;
-  private final ClassLoader classLoader;
+  private final PrefixTrie prefixes;
 
   ModulePackageConstraintSet(@NonNull ClassLoader classLoader) {
     defaultPackages =
@@ -30,12 +46,12 @@ final class ModulePackageConstraintSet {
             "io.zephyr.api",
             "io.sunshower.lang.events");
 
-    this.classLoader = classLoader;
     suffixInclusions = new HashSet<>();
     suffixExclusions = new HashSet<>();
     exactDeniedPackages = new HashSet<>();
     exactAllowedPackages = new HashSet<>(defaultPackages);
-    computePackages();
+    computePackages(classLoader);
+    prefixes = compilePrefixes();
   }
 
   static String deglob(String pkg) {
@@ -75,7 +91,7 @@ final class ModulePackageConstraintSet {
     //        .collect(Collectors.toUnmodifiableList());
   }
 
-  private void computePackages() {
+  private void computePackages(ClassLoader classLoader) {
     log.log(Level.INFO, "Loading reexported package definitions...");
     val providers = loadProviders(classLoader);
     for (val provider : providers) {
@@ -104,6 +120,20 @@ final class ModulePackageConstraintSet {
     logPackages();
   }
 
+  private PrefixTrie compilePrefixes() {
+    val trie = new PrefixTrie();
+    for (val prefix : PLATFORM_PREFIXES) {
+      trie.add(prefix, PLATFORM);
+    }
+    for (val prefix : suffixInclusions) {
+      trie.add(prefix, INCLUDED);
+    }
+    for (val prefix : suffixExclusions) {
+      trie.add(prefix, EXCLUDED);
+    }
+    return trie;
+  }
+
   private boolean isGlob(String pkg) {
     return pkg.endsWith(".*");
   }
@@ -124,37 +154,45 @@ final class ModulePackageConstraintSet {
   }
 
   boolean canReexport(String name) {
-    boolean reexported =
-        name.startsWith("java")
-            || name.startsWith("com.sun")
-            || name.startsWith("javax")
-            || name.startsWith("org.w3c")
-            || name.startsWith("jdk")
-            || name.startsWith("sun")
-            || name.startsWith("org.ietf")
-            || name.startsWith("org.xml")
-            || exactAllowedPackages.contains(name);
+    val matched = prefixes.match(name);
+    boolean reexported = (matched & PLATFORM) != 0 || exactAllowedPackages.contains(name);
     if (reexported && !exactDeniedPackages.contains(name)) {
       return true;
     }
-    return included(name) && !excluded(name);
+    return (matched & INCLUDED) != 0 && (matched & EXCLUDED) == 0;
   }
 
-  private boolean excluded(String name) {
-    for (val pkg : suffixExclusions) {
-      if (name.startsWith(pkg)) {
-        return true;
+  /**
+   * maps raw string prefixes (not just whole segments: "sun" matches "sunx" as well as "sun.misc")
+   * to the union of the flags of every rule they satisfy
+   */
+  static final class PrefixTrie {
+    private final Node root = new Node();
+
+    void add(String prefix, int flag) {
+      var node = root;
+      for (int i = 0; i < prefix.length(); i++) {
+        node = node.children.computeIfAbsent(prefix.charAt(i), c -> new Node());
       }
+      node.flags |= flag;
     }
-    return false;
-  }
 
-  private boolean included(String name) {
-    for (val pkg : suffixInclusions) {
-      if (name.startsWith(pkg)) {
-        return true;
+    int match(String name) {
+      var node = root;
+      int result = node.flags;
+      for (int i = 0; i < name.length(); i++) {
+        node = node.children.get(name.charAt(i));
+        if (node == null) {
+          break;
+        }
+        result |= node.flags;
       }
+      return result;
     }
-    return false;
+  }
+
+  static final class Node {
+    final Map<Character, Node> children = new HashMap<>(4);
+    int flags;
   }
 }
@@ -1,12 +1,21 @@
 package io.zephyr.kernel.core;
 
+import com.vdurmont.semver4j.Requirement;
 import com.vdurmont.semver4j.Semver;
 import com.vdurmont.semver4j.Semver.SemverType;
 import io.zephyr.kernel.Version;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import lombok.NonNull;
 
 public class SemanticVersion implements Version {
 
+  /** ranges come from module descriptors and repeat heavily--don't let odd ones grow unbounded */
+  static final int MAX_CACHED_RANGES = 4096;
+
+  /** range expression -> parsed IVY requirement. Requirements are immutable */
+  static final Map<String, Requirement> ranges = new ConcurrentHashMap<>();
+
   private final Semver version;
 
   public SemanticVersion(@NonNull String spec) {
@@ -47,6 +56,21 @@ public class SemanticVersion implements Version {
 
   @Override
   public boolean satisfies(String range) {
-    return version.satisfies(range);
+    return version.satisfies(requirement(range));
+  }
+
+  /**
+   * @param range the IVY range expression
+   * @return the parsed requirement, parsing it only the first time it's seen
+   */
+  static Requirement requirement(@NonNull String range) {
+    final Requirement existing = ranges.get(range);
+    if (existing != null) {
+      return existing;
+    }
+    if (ranges.size() >= MAX_CACHED_RANGES) {
+      ranges.clear();
+    }
+    return ranges.computeIfAbsent(range, Requirement::buildIvy);
   }
 }
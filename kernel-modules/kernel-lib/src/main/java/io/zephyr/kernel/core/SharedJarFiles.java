@@ -0,0 +1,190 @@
+package io.zephyr.kernel.core;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.jar.Manifest;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import lombok.val;
+
+/**
+ * reference-counted JarFile handles, keyed by path, modification time, size and file key. A library
+ * shared by many modules has its central directory and manifest read once, and holds one file
+ * descriptor, no matter how many resource roots refer to it. Each open returns its own handle that
+ * reads through the shared file; closing a handle releases its reference (closing it again does
+ * nothing), and the shared file is closed with the last one. Modifying or replacing the file
+ * yields a fresh shared file for later openers while existing holders keep the one they have
+ */
+final class SharedJarFiles {
+
+  private static final Map<Key, SharedJarFile> open = new HashMap<>();
+
+  private SharedJarFiles() {
+    throw new IllegalStateException("No instances");
+  }
+
+  /**
+   * @param file the file to open
+   * @return a new handle to the shared file. Callers must close it
+   * @throws IOException if the file could not be opened
+   */
+  static JarFile open(File file) throws IOException {
+    val key = Key.of(file);
+    SharedJarFile jar;
+    synchronized (open) {
+      jar = open.get(key);
+      if (jar == null) {
+        jar = new SharedJarFile(file, key);
+        open.put(key, jar);
+      }
+      jar.references++;
+    }
+    try {
+      return new Handle(file, jar);
+    } catch (IOException | RuntimeException ex) {
+      jar.release();
+      throw ex;
+    }
+  }
+
+  static final class SharedJarFile extends JarFile {
+    private final Key key;
+
+    /** guarded by open */
+    private int references;
+
+    SharedJarFile(File file, Key key) throws IOException {
+      super(file);
+      this.key = key;
+    }
+
+    void release() throws IOException {
+      synchronized (open) {
+        if (references == 0 || --references > 0) {
+          return;
+        }
+        open.remove(key, this);
+      }
+      close();
+    }
+  }
+
+  /**
+   * a single reference to a shared file. The JDK shares the underlying file between every JarFile
+   * opened on it, so the handle's own state costs next to nothing; every read goes through the
+   * shared file
+   */
+  static final class Handle extends JarFile {
+    final SharedJarFile shared;
+
+    /** guarded by this */
+    private boolean closed;
+
+    Handle(File file, SharedJarFile shared) throws IOException {
+      super(file);
+      this.shared = shared;
+    }
+
+    @Override
+    public Manifest getManifest() throws IOException {
+      return shared.getManifest();
+    }
+
+    @Override
+    public JarEntry getJarEntry(String name) {
+      return shared.getJarEntry(name);
+    }
+
+    @Override
+    public ZipEntry getEntry(String name) {
+      return shared.getEntry(name);
+    }
+
+    @Override
+    public Enumeration<JarEntry> entries() {
+      return shared.entries();
+    }
+
+    @Override
+    public Stream<JarEntry> stream() {
+      return shared.stream();
+    }
+
+    @Override
+    public InputStream getInputStream(ZipEntry entry) throws IOException {
+      return shared.getInputStream(entry);
+    }
+
+    @Override
+    public int size() {
+      return shared.size();
+    }
+
+    @Override
+    public void close() throws IOException {
+      synchronized (this) {
+        if (closed) {
+          return;
+        }
+        closed = true;
+      }
+      try {
+        shared.release();
+      } finally {
+        super.close();
+      }
+    }
+  }
+
+  static final class Key {
+    final String path;
+    final long modified;
+    final long size;
+    final Object fileKey;
+
+    Key(String path, long modified, long size, Object fileKey) {
+      this.path = path;
+      this.modified = modified;
+      this.size = size;
+      this.fileKey = fileKey;
+    }
+
+    static Key of(File file) throws IOException {
+      val attributes = Files.readAttributes(file.toPath(), BasicFileAttributes.class);
+      return new Key(
+          file.getAbsolutePath(),
+          attributes.lastModifiedTime().toMillis(),
+          attributes.size(),
+          attributes.fileKey());
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof Key)) {
+        return false;
+      }
+      val that = (Key) o;
+      return modified == that.modified
+          && size == that.size
+          && path.equals(that.path)
+          && Objects.equals(fileKey, that.fileKey);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(path, modified, size, fileKey);
+    }
+  }
+}
@@ -12,11 +12,25 @@ import io.zephyr.platform.api.Platform;
 import io.zephyr.platform.api.Platform.OperatingSystem;
 import java.io.File;
 import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.nio.file.FileAlreadyExistsException;
 import java.nio.file.FileSystem;
 import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
 import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import java.util.zip.ZipEntry;
@@ -28,6 +42,23 @@ public abstract class AbstractCompressedModuleAssemblyExtractor implements Modul
   static final Logger log =
       Logger.getLogger(AbstractCompressedModuleAssemblyExtractor.class.getName());
 
+  /**
+   * the file in the module filesystem recording the CRC and size of each library extracted into
+   * it, so that a reinstall can leave unchanged libraries alone
+   */
+  static final String LIBRARY_INDEX = "libraries.idx";
+
+  /** the most libraries extracted at once, across every archive being extracted */
+  static final int MAX_EXTRACTION_THREADS = 8;
+
+  private static final AtomicInteger threadCount = new AtomicInteger();
+
+  /**
+   * the archives opened by {@link #appliesTo} that {@link #extract} hasn't consumed yet, by
+   * assembly (assemblies are compared by identity)
+   */
+  private final Map<Assembly, ZipFile> archives = new ConcurrentHashMap<>();
+
   protected static String dirname(String libdir) {
     val normalized = libdir.substring(0, libdir.length() - 1);
     return normalized.substring(normalized.lastIndexOf('/') + 1);
@@ -45,32 +76,69 @@ public abstract class AbstractCompressedModuleAssemblyExtractor implements Modul
   public void extract(Assembly assembly, FileSystem moduleFilesystem, ExtractionListener listener)
       throws Exception {
 
-    try (val compressedAssembly = createArchive(assembly.getFile())) {
+    val retained = archives.remove(assembly);
+    try (val compressedAssembly = retained == null ? createArchive(assembly.getFile()) : retained) {
       doExtract(compressedAssembly, getLibraryDirectories(), moduleFilesystem, assembly, listener);
     }
   }
 
+  /**
+   * opens the assembly's archive and, if this extractor applies to it, keeps it open for {@link
+   * #extract} so that the archive is only opened once. Otherwise, it's closed here
+   */
   @Override
   public boolean appliesTo(Assembly assembly, FileSystem moduleFilesystem) {
-    try (val file = createArchive(assembly.getFile())) {
-      /**
-       * library directories are more specific (e.g. BOOT-INF is not likely to appear in a standard
-       * JAR file)
-       */
-      for (val libraryDirectory : getLibraryDirectories()) {
-        if (file.getEntry(libraryDirectory) != null) {
-          return true;
-        }
+    final ZipFile file;
+    try {
+      file = createArchive(assembly.getFile());
+    } catch (IOException ex) {
+      return false;
+    }
+    var applies = false;
+    try {
+      applies = appliesTo(file);
+      return applies;
+    } finally {
+      if (applies) {
+        closeQuietly(archives.put(assembly, file));
+      } else {
+        closeQuietly(file);
       }
+    }
+  }
 
-      for (val resourceDirectory : getResourceDirectories()) {
-        if (file.getEntry(resourceDirectory) != null) {
-          return true;
-        }
-      }
+  /** closes the archive retained for the assembly, if {@link #extract} didn't consume it */
+  @Override
+  public void release(Assembly assembly) {
+    closeQuietly(archives.remove(assembly));
+  }
 
+  private static void closeQuietly(ZipFile file) {
+    if (file == null) {
+      return;
+    }
+    try {
+      file.close();
     } catch (IOException ex) {
-      return false;
+      log.log(Level.FINE, "Failed to close archive ''{0}''", file.getName());
+    }
+  }
+
+  private boolean appliesTo(ZipFile file) {
+    /**
+     * library directories are more specific (e.g. BOOT-INF is not likely to appear in a standard
+     * JAR file)
+     */
+    for (val libraryDirectory : getLibraryDirectories()) {
+      if (file.getEntry(libraryDirectory) != null) {
+        return true;
+      }
+    }
+
+    for (val resourceDirectory : getResourceDirectories()) {
+      if (file.getEntry(resourceDirectory) != null) {
+        return true;
+      }
     }
     return false;
   }
@@ -91,7 +159,18 @@ public abstract class AbstractCompressedModuleAssemblyExtractor implements Modul
    */
   protected abstract boolean isResourceDirectory(String name, ZipFile file);
 
-  @SuppressWarnings({"PMD.DataflowAnomalyAnalysis"})
+  /**
+   * walks the archive once, recording its resource directories and collecting its libraries, then
+   * unpacks the libraries concurrently (each through {@link #unpackDirectory}). Libraries are added
+   * to the assembly in archive order regardless of the order they finish extracting in. Entries
+   * that extract to the same file are only extracted once (the last one wins, as it would have
+   * sequentially) so that no two threads ever write the same target.
+   *
+   * <p>A library whose target already exists with the CRC and size recorded when it was last
+   * extracted isn't rewritten. The record is removed while extracting and rewritten afterwards, so
+   * an interrupted extraction causes a full extraction the next time
+   */
+  @SuppressWarnings({"PMD.DataflowAnomalyAnalysis", "PMD.AvoidInstantiatingObjectsInLoops"})
   protected void doExtract(
       ZipFile compressedAssembly,
       Collection<String> libDirectories,
@@ -100,7 +179,8 @@ public abstract class AbstractCompressedModuleAssemblyExtractor implements Modul
       ExtractionListener listener)
       throws IOException {
 
-    //    val compressedAssembly = new JarFile(assemblyFile, true);
+    val directories = new HashMap<String, File>();
+    val extractions = new LinkedHashMap<File, Extraction>();
     val entries = compressedAssembly.entries();
     while (entries.hasMoreElements()) {
       val next = entries.nextElement();
@@ -108,18 +188,40 @@ public abstract class AbstractCompressedModuleAssemblyExtractor implements Modul
       if (isResourceDirectory(name, compressedAssembly)) {
         assembly.addSubpath(name);
       }
+      if (next.isDirectory()) {
+        continue;
+      }
       for (val libdir : libDirectories) {
-        if (next.isDirectory()) {
-          continue;
-        }
         if (name.startsWith(libdir)) {
-          unpackDirectory(
-              moduleFileSystem, compressedAssembly, next, libdir, name, assembly, listener);
+          val path =
+              directories.computeIfAbsent(libdir, dir -> createDirectory(moduleFileSystem, dir));
+          val extraction = new Extraction(next, libdir, name, path);
+          extractions.put(extraction.target(), extraction);
+          break;
         }
       }
     }
+
+    val index = moduleFileSystem.getPath(LIBRARY_INDEX);
+    val previous = readIndex(index);
+    java.nio.file.Files.deleteIfExists(index);
+    val pending = new ArrayList<>(extractions.values());
+    val libraries =
+        extractAll(compressedAssembly, pending, previous, moduleFileSystem, assembly, listener);
+    for (val library : libraries) {
+      assembly.addLibrary(library);
+    }
+    writeIndex(index, pending);
   }
 
+  /**
+   * extracts a single library. This is called concurrently, from a pool shared by every extractor,
+   * once for each distinct target, so overrides must be thread-safe: they may not share mutable
+   * state between calls without synchronizing it. A library that an override doesn't extract
+   * through this implementation is never recorded as unchanged, so it's extracted every time
+   *
+   * @param assembly the assembly to add the extracted library to
+   */
   protected void unpackDirectory(
       FileSystem moduleFileSystem,
       ZipFile compressedAssembly,
@@ -129,6 +231,42 @@ public abstract class AbstractCompressedModuleAssemblyExtractor implements Modul
       Assembly assembly,
       ExtractionListener listener)
       throws IOException {
+    val target = new File(createDirectory(moduleFileSystem, libdir), getFileName(name));
+    val written = doTransfer(compressedAssembly, next, name, target, listener);
+    if (written && assembly instanceof Unpacked) {
+      ((Unpacked) assembly).written = true;
+    }
+    assembly.addLibrary(new Library(target));
+  }
+
+  private static Properties readIndex(Path index) {
+    val result = new Properties();
+    if (!java.nio.file.Files.exists(index)) {
+      return result;
+    }
+    try (val input = java.nio.file.Files.newInputStream(index)) {
+      result.load(input);
+    } catch (IOException | IllegalArgumentException ex) {
+      log.log(Level.FINE, "Ignoring unreadable library index ''{0}''", index);
+      result.clear();
+    }
+    return result;
+  }
+
+  private static void writeIndex(Path index, List<Extraction> extractions) throws IOException {
+    val result = new Properties();
+    for (val extraction : extractions) {
+      val signature = extraction.signature();
+      if (signature != null && extraction.written) {
+        result.setProperty(extraction.key(), signature);
+      }
+    }
+    try (val output = java.nio.file.Files.newOutputStream(index)) {
+      result.store(output, null);
+    }
+  }
+
+  private File createDirectory(FileSystem moduleFileSystem, String libdir) {
     val dirname = dirname(libdir);
     val path = moduleFileSystem.getPath(dirname).toFile();
     if (!path.exists()) {
@@ -136,20 +274,91 @@ public abstract class AbstractCompressedModuleAssemblyExtractor implements Modul
         throw new TaskException(TaskStatus.UNRECOVERABLE);
       }
     }
-    doTransfer(compressedAssembly, next, name, path, assembly, listener);
+    return path;
+  }
+
+  @SuppressWarnings("PMD.AvoidInstantiatingObjectsInLoops")
+  private List<Library> extractAll(
+      ZipFile compressedAssembly,
+      List<Extraction> extractions,
+      Properties previous,
+      FileSystem moduleFileSystem,
+      Assembly assembly,
+      ExtractionListener listener)
+      throws IOException {
+    val results = new ArrayList<Library>(extractions.size());
+    if (extractions.size() <= 1 || Extractors.THREADS <= 1) {
+      for (val extraction : extractions) {
+        results.addAll(
+            extraction.transfer(
+                this, compressedAssembly, previous, moduleFileSystem, assembly, listener));
+      }
+      return results;
+    }
+
+    val futures = new ArrayList<Future<Collection<Library>>>(extractions.size());
+    var completed = false;
+    try {
+      for (val extraction : extractions) {
+        futures.add(
+            Extractors.INSTANCE.submit(
+                () ->
+                    extraction.transfer(
+                        this, compressedAssembly, previous, moduleFileSystem, assembly, listener)));
+      }
+      for (val future : futures) {
+        results.addAll(await(future));
+      }
+      completed = true;
+      return results;
+    } finally {
+      if (!completed) {
+        for (val future : futures) {
+          future.cancel(true);
+        }
+      }
+    }
+  }
+
+  @SuppressWarnings("PMD.DoNotUseThreads")
+  private static Thread newThread(Runnable runnable) {
+    val thread = new Thread(runnable, "zephyr-extractor-" + threadCount.incrementAndGet());
+    thread.setDaemon(true);
+    return thread;
+  }
+
+  @SuppressWarnings("PMD.PreserveStackTrace")
+  private static Collection<Library> await(Future<Collection<Library>> future)
+      throws IOException {
+    try {
+      return future.get();
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("Interrupted while extracting");
+    } catch (ExecutionException ex) {
+      val cause = ex.getCause();
+      if (cause instanceof IOException) {
+        throw (IOException) cause;
+      }
+      if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      }
+      throw new IOException(cause);
+    }
   }
 
+  /**
+   * @return true if the entry was written to the target, or false if the target already existed and
+   *     couldn't be replaced
+   */
   @SuppressFBWarnings
-  @SuppressWarnings("PMD.UnusedPrivateMethod")
-  private void doTransfer(
+  private static boolean doTransfer(
       ZipFile compressedAssembly,
       ZipEntry next,
       String name,
-      File path,
-      Assembly assembly,
+      File target,
       ExtractionListener listener)
       throws IOException {
-    var target = new File(path, getFileName(name));
     try (val inputStream = compressedAssembly.getInputStream(next)) {
       listener.beforeEntryExtracted(name, target);
       if (!target.getParentFile().exists()) {
@@ -165,7 +374,8 @@ public abstract class AbstractCompressedModuleAssemblyExtractor implements Modul
           if (!target.delete()) {
             log.log(
                 Level.WARNING,
-                "File ''{0}'' could not be deleted, and may not be correct.",
+                "File ''{0}'' could not be deleted, and may not be correct. It will be extracted"
+                    + " again next time",
                 new Object[] {target});
           }
         } else {
@@ -175,11 +385,99 @@ public abstract class AbstractCompressedModuleAssemblyExtractor implements Modul
         }
       }
 
-      if (!target.exists()) {
+      val written = !target.exists();
+      if (written) {
         java.nio.file.Files.copy(inputStream, target.toPath(), StandardCopyOption.REPLACE_EXISTING);
       }
-      assembly.addLibrary(new Library(target));
       listener.afterEntryExtracted(name, target);
+      return written;
+    }
+  }
+
+  /**
+   * the extraction threads shared by every archive, started on the first parallel extraction. The
+   * threads are daemons, so the pool never has to be shut down
+   */
+  static final class Extractors {
+    static final int THREADS =
+        Math.min(MAX_EXTRACTION_THREADS, Runtime.getRuntime().availableProcessors());
+
+    static final ExecutorService INSTANCE =
+        Executors.newFixedThreadPool(THREADS, AbstractCompressedModuleAssemblyExtractor::newThread);
+
+    private Extractors() {}
+  }
+
+  static final class Extraction {
+    final ZipEntry entry;
+    final String libdir;
+    final String name;
+    final File directory;
+
+    /**
+     * whether the target holds this entry's content once extracted. It doesn't if the previous file
+     * couldn't be replaced, in which case the entry is left out of the index so that the next
+     * extraction tries again
+     */
+    boolean written;
+
+    Extraction(ZipEntry entry, String libdir, String name, File directory) {
+      this.entry = entry;
+      this.libdir = libdir;
+      this.name = name;
+      this.directory = directory;
+    }
+
+    File target() {
+      return new File(directory, getFileName(name));
+    }
+
+    String key() {
+      return directory.getName() + "/" + getFileName(name);
+    }
+
+    /** @return the CRC and size of the entry, or null if the archive doesn't record them */
+    String signature() {
+      val crc = entry.getCrc();
+      val size = entry.getSize();
+      if (crc < 0 || size < 0) {
+        return null;
+      }
+      return Long.toHexString(crc) + ":" + size;
+    }
+
+    Collection<Library> transfer(
+        AbstractCompressedModuleAssemblyExtractor extractor,
+        ZipFile compressedAssembly,
+        Properties previous,
+        FileSystem moduleFileSystem,
+        Assembly assembly,
+        ExtractionListener listener)
+        throws IOException {
+      val target = target();
+      val signature = signature();
+      if (signature != null
+          && signature.equals(previous.getProperty(key()))
+          && target.isFile()
+          && target.length() == entry.getSize()) {
+        log.log(Level.FINE, "Library ''{0}'' is unchanged--not extracting it", target);
+        written = true;
+        return List.of(new Library(target));
+      }
+      val unpacked = new Unpacked(assembly.getFile());
+      extractor.unpackDirectory(
+          moduleFileSystem, compressedAssembly, entry, libdir, name, unpacked, listener);
+      written = unpacked.written;
+      return unpacked.getLibraries();
+    }
+  }
+
+  /** collects the library unpacked for a single entry, and whether its target was written */
+  static final class Unpacked extends Assembly {
+    boolean written;
+
+    Unpacked(File file) {
+      super(file);
     }
   }
 }
@@ -28,6 +28,7 @@ import java.util.Optional;
 import java.util.jar.Attributes;
 import java.util.jar.JarFile;
 import java.util.jar.Manifest;
+import java.util.zip.ZipFile;
 import lombok.AllArgsConstructor;
 import lombok.val;
 
@@ -60,14 +61,43 @@ public final class ManifestModuleScanner implements ModuleScanner {
     }
 
     try {
-      try (val packageFile = new JarFile(file, true)) {
-        return Optional.of(read(packageFile.getManifest(), file, source));
+      try (val packageFile = new ZipFile(file)) {
+        return Optional.of(read(readManifest(packageFile), file, source));
       }
     } catch (Throwable e) {
       return Optional.empty();
     }
   }
 
+  /**
+   * reads only the manifest entry. Opening the archive as a verifying JarFile would read and hash
+   * the signed entries just to produce the manifest--signatures are checked (if requested) by a
+   * separate installation phase instead
+   *
+   * @param packageFile the archive to read
+   * @return its manifest
+   * @throws NoSuchElementException if it doesn't have one
+   */
+  static Manifest readManifest(ZipFile packageFile) throws IOException {
+    var entry = packageFile.getEntry(JarFile.MANIFEST_NAME);
+    if (entry == null) {
+      val entries = packageFile.entries();
+      while (entries.hasMoreElements()) {
+        val next = entries.nextElement();
+        if (JarFile.MANIFEST_NAME.equalsIgnoreCase(next.getName())) {
+          entry = next;
+          break;
+        }
+      }
+    }
+    if (entry == null) {
+      throw new NoSuchElementException("Error: no manifest in " + packageFile.getName());
+    }
+    try (val input = packageFile.getInputStream(entry)) {
+      return new Manifest(input);
+    }
+  }
+
   private ModuleDescriptor read(Manifest manifest, File file, URL source) throws IOException {
     val attrs = manifest.getMainAttributes();
     val group = req(attrs, ModuleDescriptor.Attributes.GROUP);
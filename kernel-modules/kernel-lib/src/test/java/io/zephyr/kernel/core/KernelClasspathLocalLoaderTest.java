@@ -1,9 +1,19 @@
 package io.zephyr.kernel.core;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
 
+import java.lang.ref.WeakReference;
+import java.net.URL;
+import java.net.URLClassLoader;
+import lombok.val;
 import org.junit.jupiter.api.Test;
 
+@SuppressWarnings("PMD.JUnitTestContainsTooManyAsserts")
 class KernelClasspathLocalLoaderTest {
 
   @Test
@@ -12,4 +22,48 @@ class KernelClasspathLocalLoaderTest {
         getClass().getPackageName(),
         KernelClasspathLocalLoader.getPackageName(getClass().getName()));
   }
+
+  @Test
+  void ensureMissingResourcesAreRememberedUntilInvalidated() {
+    val kernel = mock(Kernel.class);
+    given(kernel.getClassLoader()).willReturn(getClass().getClassLoader());
+    val loader = new KernelClasspathLocalLoader(kernel);
+    val name = "io/zephyr/kernel/core/does-not-exist.txt";
+
+    assertTrue(loader.loadResourceLocal(name).isEmpty(), "resource must not exist");
+    assertTrue(loader.missingResources.contains(name), "miss must be remembered");
+
+    loader.invalidate();
+    assertFalse(loader.missingResources.contains(name), "miss must be forgotten");
+  }
+
+  @Test
+  void ensureConstraintSetsDoNotRetainContextClassLoaders() throws InterruptedException {
+    val kernel = mock(Kernel.class);
+    given(kernel.getClassLoader()).willReturn(getClass().getClassLoader());
+    val loader = new KernelClasspathLocalLoader(kernel);
+    val reference = loadWithContextClassLoader(loader);
+    assertEquals(1, loader.moduleOverriddenPackageConstraintSets.size());
+
+    for (int i = 0; i < 50 && reference.get() != null; i++) {
+      System.gc();
+      Thread.sleep(20);
+    }
+    assertNull(reference.get(), "context classloader must be collectable");
+    assertTrue(loader.moduleOverriddenPackageConstraintSets.isEmpty());
+  }
+
+  private static WeakReference<ClassLoader> loadWithContextClassLoader(
+      KernelClasspathLocalLoader loader) {
+    val thread = Thread.currentThread();
+    val previous = thread.getContextClassLoader();
+    val contextClassLoader = new URLClassLoader(new URL[0], null);
+    thread.setContextClassLoader(contextClassLoader);
+    try {
+      loader.loadClassLocal("org.example.DoesNotExist", false);
+    } finally {
+      thread.setContextClassLoader(previous);
+    }
+    return new WeakReference<>(contextClassLoader);
+  }
 }
@@ -0,0 +1,67 @@
+package io.zephyr.kernel.core;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+import io.zephyr.kernel.Module;
+import io.zephyr.kernel.dependencies.DependencyGraph;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import lombok.val;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+@SuppressWarnings("PMD.JUnitTestContainsTooManyAsserts")
+class KernelModuleLoaderTest {
+
+  private KernelModuleLoader loader;
+
+  @BeforeEach
+  void setUp() {
+    loader = new KernelModuleLoader(mock(DependencyGraph.class), mock(Kernel.class));
+  }
+
+  @Test
+  void ensureOnlyOperationsOnTheSameCoordinateWaitForEachOther() throws Exception {
+    val held = loader.lock("test:held:1.0.0");
+    val other =
+        CompletableFuture.supplyAsync(
+            () -> {
+              val lock = loader.lock("test:other:1.0.0");
+              loader.unlock("test:other:1.0.0", lock);
+              return lock;
+            });
+    assertNotSame(held, other.get(5, TimeUnit.SECONDS), "coordinates must not share locks");
+
+    val same =
+        CompletableFuture.supplyAsync(
+            () -> {
+              val lock = loader.lock("test:held:1.0.0");
+              loader.unlock("test:held:1.0.0", lock);
+              return lock;
+            });
+    val deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+    while (!held.hasQueuedThreads()) {
+      assertTrue(System.nanoTime() < deadline, "same coordinate must wait for the holder");
+      Thread.onSpinWait();
+    }
+    assertFalse(same.isDone(), "same coordinate must not proceed while held");
+    loader.unlock("test:held:1.0.0", held);
+    assertSame(held, same.get(5, TimeUnit.SECONDS), "waiter must acquire the held lock");
+    assertTrue(loader.locks.isEmpty(), "released locks must be discarded");
+  }
+
+  @Test
+  void ensureInstallingAndUninstallingLeavesNoLocksBehind() {
+    val module = mock(Module.class);
+    given(module.getCoordinate()).willReturn(ModuleCoordinate.create("test", "module", "1.0.0"));
+    loader.check(module);
+    loader.install(module);
+    loader.uninstall(module);
+    assertTrue(loader.locks.isEmpty(), "locks must not outlive the operations that held them");
+  }
+}
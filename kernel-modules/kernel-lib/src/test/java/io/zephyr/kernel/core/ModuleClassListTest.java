@@ -0,0 +1,92 @@
+package io.zephyr.kernel.core;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+import io.zephyr.kernel.Assembly;
+import io.zephyr.kernel.Module;
+import java.io.IOException;
+import java.nio.file.FileSystem;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Collections;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import lombok.val;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+@SuppressWarnings("PMD.JUnitTestContainsTooManyAsserts")
+class ModuleClassListTest {
+
+  @TempDir Path directory;
+
+  private Path assembly;
+  private Module module;
+
+  @BeforeEach
+  void setUp() throws IOException {
+    assembly = Files.write(directory.resolve("module.war"), new byte[] {1, 2, 3});
+    val filesystem = mock(FileSystem.class);
+    given(filesystem.getPath(ModuleClassList.FILE_NAME))
+        .willReturn(directory.resolve(ModuleClassList.FILE_NAME));
+    module = mock(Module.class);
+    given(module.getFileSystem()).willReturn(filesystem);
+    given(module.getAssembly()).willReturn(new Assembly(assembly.toFile()));
+    given(module.getLibraries()).willReturn(Collections.emptySet());
+  }
+
+  @Test
+  void ensureRecordedClassesAreReplayedUntilContentChanges() throws IOException {
+    val first = ModuleClassList.open(module);
+    assertNotNull(first, "class list must open");
+    assertTrue(first.isRecording(), "first start must record");
+    first.transform(null, "test.Recorded", null, null);
+    first.save();
+
+    val second = ModuleClassList.open(module);
+    assertNotNull(second, "class list must open");
+    assertFalse(second.isRecording(), "unchanged content must replay");
+
+    Files.write(assembly, new byte[] {4, 5, 6});
+    Files.setLastModifiedTime(
+        assembly, FileTime.fromMillis(Files.getLastModifiedTime(assembly).toMillis() + 2000));
+    val third = ModuleClassList.open(module);
+    assertNotNull(third, "class list must open");
+    assertTrue(third.isRecording(), "changed content must record again");
+  }
+
+  @Test
+  void ensureReplayLoadsRecordedClassesOnALowPriorityDaemonThread() throws Exception {
+    val first = ModuleClassList.open(module);
+    assertNotNull(first, "class list must open");
+    first.transform(null, "java.lang.String", null, null);
+    first.save();
+
+    val second = ModuleClassList.open(module);
+    assertNotNull(second, "class list must open");
+    val thread = new AtomicReference<Thread>();
+    val replayed = new CountDownLatch(1);
+    val classLoader =
+        new ClassLoader(getClass().getClassLoader()) {
+          @Override
+          protected Class<?> loadClass(String name, boolean resolve)
+              throws ClassNotFoundException {
+            thread.set(Thread.currentThread());
+            replayed.countDown();
+            return super.loadClass(name, resolve);
+          }
+        };
+    second.replay(classLoader);
+    assertTrue(replayed.await(10, TimeUnit.SECONDS), "recorded class must be loaded");
+    assertTrue(thread.get().isDaemon(), "replay must not keep the kernel alive");
+    assertEquals(Thread.MIN_PRIORITY, thread.get().getPriority());
+  }
+}
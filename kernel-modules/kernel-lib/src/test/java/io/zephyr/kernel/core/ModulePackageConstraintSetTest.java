@@ -1,13 +1,40 @@
 package io.zephyr.kernel.core;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import lombok.val;
 import org.junit.jupiter.api.Test;
 
+@SuppressWarnings("PMD.JUnitTestContainsTooManyAsserts")
 class ModulePackageConstraintSetTest {
 
   @Test
   void ensureDeglobbingWorks() {
     assertEquals("hello.world", ModulePackageConstraintSet.deglob("hello.world.*"));
   }
+
+  @Test
+  void ensurePrefixTrieMatchesRawPrefixes() {
+    val trie = new ModulePackageConstraintSet.PrefixTrie();
+    trie.add("sun", ModulePackageConstraintSet.PLATFORM);
+    trie.add("io.zephyr", ModulePackageConstraintSet.INCLUDED);
+    trie.add("io.zephyr.kernel.internal", ModulePackageConstraintSet.EXCLUDED);
+
+    assertEquals(ModulePackageConstraintSet.PLATFORM, trie.match("sun.misc"));
+    assertEquals(ModulePackageConstraintSet.INCLUDED, trie.match("io.zephyr.api"));
+    assertEquals(
+        ModulePackageConstraintSet.INCLUDED | ModulePackageConstraintSet.EXCLUDED,
+        trie.match("io.zephyr.kernel.internal.foo"));
+    assertEquals(0, trie.match("io.zeph"));
+  }
+
+  @Test
+  void ensurePlatformAndDefaultPackagesAreReexported() {
+    val constraints = new ModulePackageConstraintSet(getClass().getClassLoader());
+    assertTrue(constraints.canReexport("java.util"), "platform packages must be visible");
+    assertTrue(constraints.canReexport("io.zephyr.api"), "default packages must be visible");
+    assertFalse(constraints.canReexport("com.example.hidden"), "others must not be visible");
+  }
 }
@@ -0,0 +1,21 @@
+package io.zephyr.kernel.core;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class SemanticVersionTest {
+
+  @Test
+  void ensureRangesAreParsedOnce() {
+    assertSame(SemanticVersion.requirement("[1.0,2.0)"), SemanticVersion.requirement("[1.0,2.0)"));
+  }
+
+  @Test
+  void ensureCachedRangeIsEvaluatedAgainstEachVersion() {
+    assertTrue(new SemanticVersion("1.5.0").satisfies("[1.0,2.0)"));
+    assertFalse(new SemanticVersion("2.1.0").satisfies("[1.0,2.0)"));
+  }
+}
@@ -0,0 +1,102 @@
+package io.zephyr.kernel.core;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.jar.JarOutputStream;
+import lombok.val;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+@SuppressWarnings("PMD.JUnitTestContainsTooManyAsserts")
+class SharedJarFilesTest {
+
+  @TempDir Path directory;
+
+  @Test
+  void ensureHandlesAreSharedUntilTheLastIsClosed() throws IOException {
+    val file = jar("library.jar");
+    val fst = SharedJarFiles.open(file);
+    val snd = SharedJarFiles.open(file);
+    assertNotSame(fst, snd, "each open must get its own handle");
+    assertSame(shared(fst), shared(snd), "the same file must be shared");
+
+    fst.close();
+    assertNotNull(snd.getEntry("test.txt"), "handle must remain usable while referenced");
+    snd.close();
+    assertThrows(IllegalStateException.class, () -> shared(snd).size(), "must close the file");
+
+    try (val reopened = SharedJarFiles.open(file)) {
+      assertNotSame(shared(fst), shared(reopened), "a released file must be reopened");
+    }
+  }
+
+  @Test
+  void ensureClosingAHandleTwiceReleasesOneReference() throws IOException {
+    val file = jar("twice.jar");
+    try (val holder = SharedJarFiles.open(file)) {
+      val other = SharedJarFiles.open(file);
+      other.close();
+      other.close();
+      assertNotNull(holder.getEntry("test.txt"), "another holder's reference must be kept");
+      try (val input = holder.getInputStream(holder.getEntry("test.txt"))) {
+        assertEquals(1, input.read(), "handle must remain readable");
+      }
+    }
+  }
+
+  @Test
+  void ensureModifiedFilesAreNotShared() throws IOException {
+    val file = jar("modified.jar");
+    try (val fst = SharedJarFiles.open(file)) {
+      assertTrue(file.setLastModified(file.lastModified() - 10_000), "must update mtime");
+      try (val snd = SharedJarFiles.open(file)) {
+        assertNotSame(shared(fst), shared(snd), "a modified file must not be shared");
+      }
+    }
+  }
+
+  @Test
+  void ensureResizedFilesWithTheSameModificationTimeAreNotShared() throws IOException {
+    val file = jar("resized.jar");
+    val lastModified = file.lastModified();
+    try (val fst = SharedJarFiles.open(file)) {
+      write(file.toPath(), "test.txt", "other.txt");
+      assertTrue(file.setLastModified(lastModified), "must restore mtime");
+      try (val snd = SharedJarFiles.open(file)) {
+        assertNotSame(shared(fst), shared(snd), "a resized file must not be shared");
+        assertNotNull(snd.getEntry("other.txt"), "the new content must be read");
+      }
+    }
+  }
+
+  private static JarFile shared(JarFile handle) {
+    return ((SharedJarFiles.Handle) handle).shared;
+  }
+
+  private File jar(String name) throws IOException {
+    val file = directory.resolve(name);
+    write(file, "test.txt");
+    return file.toFile();
+  }
+
+  private static void write(Path file, String... names) throws IOException {
+    try (val output = new JarOutputStream(Files.newOutputStream(file))) {
+      for (val name : names) {
+        output.putNextEntry(new JarEntry(name));
+        output.write(1);
+        output.closeEntry();
+      }
+    }
+  }
+}
@@ -0,0 +1,261 @@
+package io.zephyr.kernel.module;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+import io.zephyr.kernel.Assembly;
+import io.zephyr.kernel.Library;
+import io.zephyr.kernel.extensions.ModuleAssemblyExtractor.ExtractionListener;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystem;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipOutputStream;
+import lombok.val;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+@SuppressWarnings("PMD.JUnitTestContainsTooManyAsserts")
+class JarModuleAssemblyExtractorTest {
+
+  static final int LIBRARY_COUNT = 32;
+
+  @TempDir Path directory;
+
+  private Path moduleDirectory;
+  private FileSystem moduleFileSystem;
+  private JarModuleAssemblyExtractor extractor;
+
+  @BeforeEach
+  void setUp() throws IOException {
+    moduleDirectory = Files.createDirectories(directory.resolve("module"));
+    moduleFileSystem = mock(FileSystem.class);
+    given(moduleFileSystem.getPath(anyString()))
+        .willAnswer(invocation -> moduleDirectory.resolve(invocation.getArgument(0, String.class)));
+    extractor = new JarModuleAssemblyExtractor(List.of("lib/", "other/lib/"), List.of("classes/"));
+  }
+
+  @Test
+  void ensureLibrariesAreExtractedConcurrentlyInArchiveOrder() throws Exception {
+    val names = new ArrayList<String>();
+    for (int i = 0; i < LIBRARY_COUNT; i++) {
+      names.add("library-" + i + ".jar");
+    }
+    val archive = archive(names);
+
+    val threads = ConcurrentHashMap.<String>newKeySet();
+    val overlapping = new CountDownLatch(2);
+    val assembly = new Assembly(archive.toFile());
+    assertTrue(extractor.appliesTo(assembly, moduleFileSystem), "extractor must apply");
+    extractor.extract(
+        assembly,
+        moduleFileSystem,
+        new Listener() {
+          @Override
+          public void beforeEntryExtracted(String name, Object target) {
+            threads.add(Thread.currentThread().getName());
+            overlapping.countDown();
+            await(overlapping);
+          }
+        });
+
+    val extracted = new ArrayList<String>();
+    for (val library : assembly.getLibraries()) {
+      extracted.add(library.getFile().getName());
+      assertEquals(library.getFile().getName(), read(library));
+    }
+    assertEquals(names, extracted, "libraries must be added in archive order");
+    if (AbstractCompressedModuleAssemblyExtractor.Extractors.THREADS > 1) {
+      assertTrue(threads.size() > 1, "libraries must be extracted concurrently");
+    }
+  }
+
+  @Test
+  void ensureTheLastEntryForATargetWins() throws Exception {
+    val archive = directory.resolve("duplicates.jar");
+    try (val output = new ZipOutputStream(Files.newOutputStream(archive))) {
+      write(output, "lib/duplicate.jar", "first");
+      write(output, "lib/unique.jar", "unique");
+      write(output, "other/lib/duplicate.jar", "second");
+    }
+    val assembly = new Assembly(archive.toFile());
+    extractor.extract(assembly, moduleFileSystem, new Listener());
+
+    val extracted = new ArrayList<String>();
+    for (val library : assembly.getLibraries()) {
+      extracted.add(library.getFile().getName());
+    }
+    assertEquals(List.of("duplicate.jar", "unique.jar"), extracted);
+    assertEquals(
+        "second",
+        Files.readString(moduleDirectory.resolve("lib").resolve("duplicate.jar")),
+        "the last entry must win");
+  }
+
+  @Test
+  void ensureUnchangedLibrariesAreNotRewritten() throws Exception {
+    val archive = archive(List.of("unchanged.jar"));
+    extractor.extract(new Assembly(archive.toFile()), moduleFileSystem, new Listener());
+    val target = age(moduleDirectory.resolve("lib").resolve("unchanged.jar"));
+    val lastModified = Files.getLastModifiedTime(target);
+
+    val assembly = new Assembly(archive.toFile());
+    extractor.extract(assembly, moduleFileSystem, new Listener());
+    assertEquals(lastModified, Files.getLastModifiedTime(target), "library must not be rewritten");
+    assertEquals(1, assembly.getLibraries().size(), "skipped library must still be added");
+  }
+
+  @Test
+  void ensureLibrariesWithChangedContentAreRewritten() throws Exception {
+    extractor.extract(
+        new Assembly(archive(List.of("changed.jar")).toFile()), moduleFileSystem, new Listener());
+    val target = moduleDirectory.resolve("lib").resolve("changed.jar");
+
+    val archive = directory.resolve("module.jar");
+    try (val output = new ZipOutputStream(Files.newOutputStream(archive))) {
+      output.putNextEntry(new ZipEntry("lib/"));
+      output.closeEntry();
+      write(output, "lib/changed.jar", "CHANGED.jar");
+    }
+    extractor.extract(new Assembly(archive.toFile()), moduleFileSystem, new Listener());
+    assertEquals("CHANGED.jar", Files.readString(target), "changed crc must be rewritten");
+  }
+
+  @Test
+  void ensureMissingOrTruncatedLibrariesAreRewritten() throws Exception {
+    val archive = archive(List.of("missing.jar", "truncated.jar"));
+    extractor.extract(new Assembly(archive.toFile()), moduleFileSystem, new Listener());
+    val missing = moduleDirectory.resolve("lib").resolve("missing.jar");
+    val truncated = moduleDirectory.resolve("lib").resolve("truncated.jar");
+    Files.delete(missing);
+    Files.write(truncated, new byte[] {1});
+
+    extractor.extract(new Assembly(archive.toFile()), moduleFileSystem, new Listener());
+    assertEquals("missing.jar", Files.readString(missing), "missing library must be rewritten");
+    assertEquals("truncated.jar", Files.readString(truncated), "truncated must be rewritten");
+  }
+
+  @Test
+  void ensureLibrariesThatWereNotReplacedAreLeftOutOfTheIndex() throws Exception {
+    val archive = archive(List.of("stale.jar"));
+    extractor.extract(new Assembly(archive.toFile()), moduleFileSystem, new Listener());
+    val target = age(moduleDirectory.resolve("lib").resolve("stale.jar"));
+
+    // as if the existing file could not be deleted (e.g. because it's open on Windows)
+    val failing =
+        new JarModuleAssemblyExtractor(List.of("lib/"), List.of()) {
+          @Override
+          protected void unpackDirectory(
+              FileSystem fileSystem,
+              ZipFile compressedAssembly,
+              ZipEntry next,
+              String libdir,
+              String name,
+              Assembly assembly,
+              ExtractionListener listener) {
+            assembly.addLibrary(new Library(target.toFile()));
+          }
+        };
+    Files.write(target, "stale".getBytes(StandardCharsets.UTF_8));
+    age(target);
+    failing.extract(new Assembly(archive.toFile()), moduleFileSystem, new Listener());
+    val index = new Properties();
+    try (val input =
+        Files.newInputStream(
+            moduleDirectory.resolve(AbstractCompressedModuleAssemblyExtractor.LIBRARY_INDEX))) {
+      index.load(input);
+    }
+    assertTrue(index.isEmpty(), "library that was not replaced must not be indexed");
+  }
+
+  @Test
+  void ensureTheArchiveIsOpenedOnceAndClosedOnEveryPath() throws Exception {
+    val archive = archive(List.of("once.jar"));
+    val opened = new ArrayList<ZipFile>();
+    val counting =
+        new JarModuleAssemblyExtractor(List.of("lib/"), List.of()) {
+          @Override
+          protected ZipFile createArchive(File file) throws IOException {
+            val result = super.createArchive(file);
+            opened.add(result);
+            return result;
+          }
+        };
+
+    val extracted = new Assembly(archive.toFile());
+    assertTrue(counting.appliesTo(extracted, moduleFileSystem), "extractor must apply");
+    counting.extract(extracted, moduleFileSystem, new Listener());
+    counting.release(extracted);
+    assertEquals(1, opened.size(), "archive must be opened once");
+    assertEquals(1, extracted.getLibraries().size());
+
+    val skipped = new Assembly(archive.toFile());
+    assertTrue(counting.appliesTo(skipped, moduleFileSystem), "extractor must apply");
+    counting.release(skipped);
+    assertEquals(2, opened.size());
+    for (val file : opened) {
+      assertThrows(IllegalStateException.class, file::size, "archive must be closed");
+    }
+  }
+
+  /** moves the file's modification time back, so that a rewrite is always observable */
+  private static Path age(Path file) throws IOException {
+    val lastModified = Files.getLastModifiedTime(file).toMillis();
+    return Files.setLastModifiedTime(file, FileTime.fromMillis(lastModified - 60_000));
+  }
+
+  private Path archive(List<String> names) throws IOException {
+    val archive = directory.resolve("module.jar");
+    try (val output = new ZipOutputStream(Files.newOutputStream(archive))) {
+      output.putNextEntry(new ZipEntry("lib/"));
+      output.closeEntry();
+      for (val name : names) {
+        write(output, "lib/" + name, name);
+      }
+    }
+    return archive;
+  }
+
+  private static void write(ZipOutputStream output, String name, String content)
+      throws IOException {
+    output.putNextEntry(new ZipEntry(name));
+    output.write(content.getBytes(StandardCharsets.UTF_8));
+    output.closeEntry();
+  }
+
+  private static String read(Library library) throws IOException {
+    return Files.readString(library.getFile().toPath());
+  }
+
+  private static void await(CountDownLatch latch) {
+    try {
+      latch.await(5, TimeUnit.SECONDS);
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  static class Listener implements ExtractionListener {
+    @Override
+    public void beforeEntryExtracted(String name, Object target) {}
+
+    @Override
+    public void afterEntryExtracted(String name, Object target) {}
+  }
+}
@@ -1,12 +1,10 @@
 package io.zephyr.cli;
 
 import io.zephyr.kernel.concurrency.ExecutorWorkerPool;
-import io.zephyr.kernel.concurrency.NamedThreadFactory;
 import io.zephyr.kernel.concurrency.WorkerPool;
 import io.zephyr.kernel.core.DaggerSunshowerKernelConfiguration;
 import io.zephyr.kernel.launch.KernelOptions;
 import java.io.File;
-import java.util.concurrent.Executors;
 import lombok.AllArgsConstructor;
 import lombok.val;
 
@@ -62,9 +60,10 @@ final class builders {
     @Override
     public Zephyr create(ClassLoader classLoader) {
 
+      val options = options();
       val kernel =
           DaggerSunshowerKernelConfiguration.factory()
-              .create(options(), classLoader, workerPool())
+              .create(options, classLoader, workerPool(options))
               .kernel();
       return new DefaultZephyr(kernel);
     }
@@ -78,10 +77,9 @@ final class builders {
     }
   }
 
-  private static WorkerPool workerPool() {
-    val kernelFactory = Executors.newCachedThreadPool(new NamedThreadFactory("kernel"));
-    val userFactory = Executors.newCachedThreadPool(new NamedThreadFactory("module"));
-    return new ExecutorWorkerPool(userFactory, kernelFactory);
+  private static WorkerPool workerPool(KernelOptions options) {
+    return ExecutorWorkerPool.workStealing(
+        options.getConcurrency(), options.getKernelConcurrency());
   }
 
   static Zephyr create(File homeDirectory, ClassLoader classLoader) {
@@ -89,7 +87,7 @@ final class builders {
     options.setHomeDirectory(homeDirectory);
     val kernel =
         DaggerSunshowerKernelConfiguration.factory()
-            .create(options, classLoader, workerPool())
+            .create(options, classLoader, workerPool(options))
             .kernel();
     return new DefaultZephyr(kernel);
   }
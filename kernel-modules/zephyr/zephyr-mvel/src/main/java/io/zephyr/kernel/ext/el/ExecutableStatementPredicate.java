@@ -2,37 +2,35 @@ package io.zephyr.kernel.ext.el;
 
 import io.zephyr.Context;
 import io.zephyr.api.Query;
+import java.io.Serializable;
 import java.util.function.Predicate;
 import lombok.AllArgsConstructor;
 import org.mvel2.MVEL;
 
+/**
+ * evaluates a query against each input. The expression is compiled once; compiled MVEL expressions
+ * are safe to execute concurrently
+ */
 public final class ExecutableStatementPredicate<T> implements Predicate<T> {
 
   private final Query<T> query;
-  private volatile Boolean cached;
+  private final Serializable expression;
 
   public ExecutableStatementPredicate(Query<T> query) {
+    this(query, MVEL.compileExpression(query.getQuery()));
+  }
+
+  public ExecutableStatementPredicate(Query<T> query, Serializable expression) {
     this.query = query;
+    this.expression = expression;
   }
 
   @Override
   public boolean test(T t) {
-
-    Boolean local = cached;
-
-    if (local == null) {
-      synchronized (this) {
-        local = cached;
-        if (local == null) {
-          cached = local = evaluate(t);
-        }
-      }
-    }
-    return local;
-  }
-
-  private Boolean evaluate(T t) {
-    return MVEL.evalToBoolean(query.getQuery(), new PredicateContext<>(t, query.getContext()));
+    final Boolean result =
+        MVEL.executeExpression(
+            expression, new PredicateContext<>(t, query.getContext()), Boolean.class);
+    return Boolean.TRUE.equals(result);
   }
 
   @AllArgsConstructor
@@ -2,11 +2,21 @@ package io.zephyr.kernel.ext.el;
 
 import io.zephyr.api.Query;
 import io.zephyr.kernel.extensions.ExpressionLanguageExtension;
+import java.io.Serializable;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Predicate;
+import org.mvel2.MVEL;
 
 public class MVELExtension implements ExpressionLanguageExtension {
   static final String LANGUAGE = "mvel";
 
+  /** queries are almost always constants, but don't let generated ones grow the cache forever */
+  static final int MAX_CACHED_EXPRESSIONS = 1024;
+
+  /** source text -> compiled expression */
+  private final Map<String, Serializable> expressions = new ConcurrentHashMap<>();
+
   @Override
   public <T> boolean supports(Query<T> query) {
     return LANGUAGE.equalsIgnoreCase(query.getLanguage().trim());
@@ -14,7 +24,17 @@ public class MVELExtension implements ExpressionLanguageExtension {
 
   @Override
   public <T> Predicate<T> createPredicate(Query<T> query) {
+    return new ExecutableStatementPredicate<>(query, compile(query.getQuery()));
+  }
 
-    return new ExecutableStatementPredicate(query);
+  Serializable compile(String source) {
+    final Serializable existing = expressions.get(source);
+    if (existing != null) {
+      return existing;
+    }
+    if (expressions.size() >= MAX_CACHED_EXPRESSIONS) {
+      expressions.clear();
+    }
+    return expressions.computeIfAbsent(source, MVEL::compileExpression);
   }
 }
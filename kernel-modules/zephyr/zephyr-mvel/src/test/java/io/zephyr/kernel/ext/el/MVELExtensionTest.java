@@ -23,6 +23,7 @@ import org.mvel2.integration.impl.CachingMapVariableResolverFactory;
 class MVELExtensionTest {
   @Mock private Module module;
   @Mock private Coordinate coordinate;
+  @Mock private Coordinate other;
 
   @Test
   void checkSimpleExpression() {
@@ -76,6 +77,17 @@ class MVELExtensionTest {
     assertFalse(el.createPredicate(query).test(coordinate), "module name must not be test");
   }
 
+  @Test
+  void ensurePredicateEvaluatesEachInput() {
+    val el = resolve();
+    val ctx = new Context<>(module, null);
+    given(coordinate.getName()).willReturn("test");
+    given(other.getName()).willReturn("frapper");
+    val predicate = el.createPredicate(new Query<>("value.name == 'test'", "mvel", ctx));
+    assertTrue(predicate.test(coordinate), "first input must match");
+    assertFalse(predicate.test(other), "second input must not reuse the first result");
+  }
+
   private ExpressionLanguageExtension resolve() {
     return ServiceLoader.load(ExpressionLanguageExtension.class)
         .findFirst()
@@ -6,12 +6,18 @@ import io.sunshower.kernel.test.Clean;
 import io.sunshower.kernel.test.Module;
 import io.sunshower.kernel.test.Modules;
 import io.sunshower.kernel.test.ZephyrTest;
+import io.sunshower.lang.events.EventListener;
 import io.sunshower.test.common.Tests;
 import io.zephyr.cli.Zephyr;
 import io.zephyr.kernel.Lifecycle;
 import io.zephyr.kernel.core.Kernel;
 import io.zephyr.kernel.core.ModuleManager;
+import io.zephyr.kernel.core.actions.ModulePhaseEvents;
 import java.nio.file.Files;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 import javax.inject.Inject;
 import lombok.val;
 import org.junit.jupiter.api.Test;
@@ -84,6 +90,42 @@ class KernelRegistryMementoSystemTest {
         moduleManager.getModules(Lifecycle.State.Active).size(), 1, "kernel was started jfc");
   }
 
+  @Test
+  void ensureRestoringPluginsReportsTheRestoredSet() throws Exception {
+    val restored = restart();
+    assertEquals(1, restored.size(), "the restored plugin must be reported");
+  }
+
+  @Test
+  void ensureRestoringNoPluginsReportsAnEmptySet() throws Exception {
+    zephyr.remove("io.sunshower.spring:spring-plugin:1.0.0");
+    val restored = restart();
+    assertTrue(restored.isEmpty(), "an empty restoration must still be reported");
+  }
+
+  /** @return the modules reported as installed when the kernel's state is restored */
+  private Set<?> restart() throws Exception {
+    kernel.persistState().toCompletableFuture().get();
+    kernel.stop();
+    kernel.start();
+
+    val completed = new CountDownLatch(1);
+    val restored = new AtomicReference<Set<?>>();
+    EventListener<Set<?>> listener =
+        (type, event) -> {
+          restored.set(event.getTarget());
+          completed.countDown();
+        };
+    kernel.addEventListener(listener, ModulePhaseEvents.MODULE_SET_INSTALLATION_COMPLETED);
+    try {
+      kernel.restoreState().toCompletableFuture().get();
+      assertTrue(completed.await(10, TimeUnit.SECONDS), "restoration must be reported");
+      return restored.get();
+    } finally {
+      kernel.removeEventListener(listener);
+    }
+  }
+
   @Test
   void ensureSinglePluginIsInstalledAtBoot() {
     assertEquals(moduleManager.getModules().size(), 1);